@@ -0,0 +1,184 @@
+package com.example.okhttp.benchmark;
+
+import com.example.okhttp.OkHttpClientUtil;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the whole request path of {@link OkHttpClientUtil} against an embedded {@link LocalServer}
+ * (no latency): request building, body serialization, the interceptor chain, the socket round trip and parsing.
+ *
+ * <pre>
+ * mvn -f benchmarks/pom.xml package
+ * java -jar benchmarks/target/benchmarks.jar ClientBenchmark -prof gc
+ * </pre>
+ *
+ * Every benchmark reports throughput and average time; -prof gc adds the allocation rate (gc.alloc.rate.norm is
+ * bytes allocated per call). {@link #main(String[])} runs them with the GC profiler enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ClientBenchmark {
+    private static final int ITEM_COUNT = 100;
+
+    private LocalServer localServer;
+    @SuppressWarnings("rawtypes")
+    private OkHttpClientUtil okHttpClientUtil;
+    private Map<String, String> formParameterMap;
+    private List<File> fileList;
+
+    /**
+     * JSON request body of callPostMethodWithJson (only that benchmark runs once per size).
+     * The body is a plain {@link JsonBody}: JMH subclasses @State classes with padding fields, which Gson would serialize.
+     */
+    @State(Scope.Benchmark)
+    public static class Payload {
+        @Param({"SMALL", "64KB", "8MB"})
+        public String payloadSize;
+
+        JsonBody body;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            String data;
+            switch (this.payloadSize) {
+                case "64KB":
+                    data = "x".repeat(64 * 1024);
+                    break;
+                case "8MB":
+                    data = "x".repeat(8 * 1024 * 1024);
+                    break;
+                default:
+                    data = "x".repeat(64);
+            }
+            this.body = new JsonBody("benchmark", data);
+        }
+    }
+
+    public static class JsonBody {
+        String id;
+        String data;
+
+        JsonBody(String id, String data) {
+            this.id = id;
+            this.data = data;
+        }
+    }
+
+    public static class Item {
+        long height;
+        String hash;
+        List<String> transactions;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Map<String, Object>> items = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("height", i);
+            item.put("hash", "0x" + Integer.toHexString(i).repeat(8));
+            item.put("transactions", List.of("tx-" + i + "-a", "tx-" + i + "-b"));
+            items.add(item);
+        }
+
+        this.localServer = new LocalServer(0, Map.of("/items", new Gson().toJson(items).getBytes(StandardCharsets.UTF_8)));
+        this.okHttpClientUtil = OkHttpClientUtil.builder()
+                .host("localhost")
+                .port(this.localServer.getPort())
+                .setReadTimeout(60000)
+                .setWriteTimeout(60000)
+                .build();
+
+        this.formParameterMap = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            this.formParameterMap.put("key" + i, "value" + i);
+        }
+
+        File file = File.createTempFile("okhttp-benchmark", ".bin");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[64 * 1024]);
+        this.fileList = List.of(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.localServer.close();
+        this.fileList.forEach(File::delete);
+    }
+
+    @Benchmark
+    public String callGetMethod() {
+        return this.okHttpClientUtil.callGetMethod("/get");
+    }
+
+    @Benchmark
+    public String callPostMethodWithJson(Payload payload) {
+        return this.okHttpClientUtil.callPostMethodWithJson("/json", payload.body);
+    }
+
+    @Benchmark
+    public String callMethodWithFormData() {
+        return this.okHttpClientUtil.callMethodWithFormData("POST", "/form", this.formParameterMap);
+    }
+
+    @Benchmark
+    public String callPostMethodWithMultipartFormData() {
+        return this.okHttpClientUtil.callPostMethodWithMultipartFormData("/upload", this.formParameterMap, this.fileList);
+    }
+
+    /**
+     * Typed call deserializing List&lt;Item&gt; (parseGson with a generic parameterClass).
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object callGetMethodTypedGeneric() {
+        return this.okHttpClientUtil.callGetMethod("/items", List.class, Item.class);
+    }
+
+    /**
+     * Same response as {@link #callGetMethodTypedGeneric()} read as String, the baseline of the parsing cost.
+     */
+    @Benchmark
+    public String callGetMethodItemsAsString() {
+        return this.okHttpClientUtil.callGetMethod("/items");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(ClientBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.okhttp.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded JDK HTTP server answering every request with a fixed JSON body after a fixed latency.
+ * The request body is read completely; the response body can be chosen per path.
+ * Requests are handled on virtual threads so the server is never the bottleneck of a benchmark.
+ */
+public class LocalServer implements AutoCloseable {
+    private static final byte[] RESPONSE_BODY = "{\"result\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer httpServer;
+    private final ExecutorService executorService;
+
+    public LocalServer(long latencyMillis) throws IOException {
+        this(latencyMillis, Map.of());
+    }
+
+    /**
+     *
+     * @param latencyMillis delay before every response
+     * @param responseBodies response body per request path (other paths: {"result":"ok"})
+     */
+    public LocalServer(long latencyMillis, Map<String, byte[]> responseBodies) throws IOException {
+        this.httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 65535);
+        this.executorService = Executors.newVirtualThreadPerTaskExecutor();
+
+        this.httpServer.createContext("/", exchange -> {
+            try (exchange) {
+                exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+                byte[] responseBody = responseBodies.getOrDefault(exchange.getRequestURI().getPath(), RESPONSE_BODY);
+                if (latencyMillis > 0) {
+                    Thread.sleep(latencyMillis);
+                }
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, responseBody.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(responseBody);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        this.httpServer.setExecutor(this.executorService);
+        this.httpServer.start();
+    }
+
+    public int getPort() {
+        return this.httpServer.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        this.httpServer.stop(0);
+        this.executorService.shutdownNow();
+    }
+}
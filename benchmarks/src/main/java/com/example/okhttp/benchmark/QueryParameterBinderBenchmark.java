@@ -0,0 +1,69 @@
+package com.example.okhttp.benchmark;
+
+import com.example.okhttp.query.QueryParameterBinder;
+import com.google.gson.annotations.SerializedName;
+import okhttp3.HttpUrl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query parameter binding of getRestApiUrl(path, Object): the former per-call reflection loop
+ * (getDeclaredFields, setAccessible, field.get twice) against the cached {@link QueryParameterBinder}.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar QueryParameterBinderBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryParameterBinderBenchmark {
+    private static final HttpUrl BASE_URL = HttpUrl.get("http://localhost:8080/block/search");
+
+    public static class BlockQuery {
+        @SerializedName("from_height")
+        Long fromHeight = 1000L;
+        @SerializedName("to_height")
+        Long toHeight = 2000L;
+        String channel = "main";
+        String owner = "0x1f2e3d4c5b6a";
+        Boolean includeTransactions = true;
+        Integer limit = 100;
+        String cursor = null;
+    }
+
+    private final BlockQuery blockQuery = new BlockQuery();
+
+    @Benchmark
+    public HttpUrl reflection() throws IllegalAccessException {
+        HttpUrl.Builder httpUrlBuilder = BASE_URL.newBuilder();
+        for (Field field : this.blockQuery.getClass().getDeclaredFields()) {
+            field.setAccessible(true);
+            if (field.get(this.blockQuery) != null) {
+                httpUrlBuilder.addQueryParameter(field.getName(), field.get(this.blockQuery).toString());
+            }
+            field.setAccessible(false);
+        }
+        return httpUrlBuilder.build();
+    }
+
+    @Benchmark
+    public HttpUrl queryParameterBinder() {
+        HttpUrl.Builder httpUrlBuilder = BASE_URL.newBuilder();
+        QueryParameterBinder.bind(httpUrlBuilder, this.blockQuery);
+        return httpUrlBuilder.build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.okhttp.benchmark;
+
+import com.example.okhttp.OkHttpClientUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares blocking calls issued from platform threads and from virtual threads.
+ *
+ * <pre>
+ * args[0] concurrency levels (default: 1000,10000,50000)
+ * args[1] server latency in milliseconds (default: 100)
+ * </pre>
+ *
+ * Every level starts all calls at once behind a latch and reports wall time, throughput and failures.
+ * At 50k concurrent calls the platform-thread run may fail to create threads; that is reported as failures.
+ */
+public class VirtualThreadBenchmark {
+    public static void main(String[] args) throws Exception {
+        String[] levels = (args.length > 0 ? args[0] : "1000,10000,50000").split(",");
+        long latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 100;
+
+        try (LocalServer localServer = new LocalServer(latencyMillis)) {
+            System.out.printf("%-10s %12s %12s %14s %10s%n", "threads", "concurrency", "elapsed(ms)", "throughput/s", "failures");
+
+            for (String level : levels) {
+                int concurrency = Integer.parseInt(level.trim());
+                run("platform", concurrency, localServer.getPort(), false);
+                run("virtual", concurrency, localServer.getPort(), true);
+            }
+        }
+    }
+
+    private static void run(String name, int concurrency, int port, boolean virtual) throws InterruptedException {
+        OkHttpClientUtil okHttpClientUtil = OkHttpClientUtil.builder()
+                .host("localhost")
+                .port(port)
+                .setMaxConnectionCount(concurrency)
+                .setReadTimeout(60000)
+                .setVirtualThreadEnabled(virtual)
+                .build();
+
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(concurrency);
+
+        ExecutorService executorService = virtual
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newThreadPerTaskExecutor(Thread.ofPlatform().factory());
+
+        long elapsedNanos;
+        try (executorService) {
+            for (int i = 0; i < concurrency; i++) {
+                try {
+                    futures.add(executorService.submit(() -> {
+                        startLatch.await();
+                        return okHttpClientUtil.callGetMethod("/benchmark");
+                    }));
+                } catch (Throwable t) {
+                    // e.g. OutOfMemoryError: unable to create native thread
+                    failures.incrementAndGet();
+                }
+            }
+
+            long start = System.nanoTime();
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+            }
+            elapsedNanos = System.nanoTime() - start;
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        double throughput = (concurrency - failures.get()) / (elapsedNanos / 1_000_000_000.0);
+        System.out.printf("%-10s %12d %12d %14.1f %10d%n", name, concurrency, elapsedMillis, throughput, failures.get());
+    }
+}
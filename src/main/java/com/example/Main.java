@@ -3,23 +3,14 @@ package com.example;
 import com.example.okhttp.NexledgerRPCHttpClient;
 import com.example.okhttp.OkHttpClientUtil;
 import com.example.okhttp.model.EndPoint;
-import okhttp3.HttpUrl;
 
-import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
 
 public class Main {
     public static void main(String[] args) {
         String restApiPath = "/security/generate/token";
 
-        URL url = HttpUrl.parse("http://localhost:8080" + restApiPath)
-                .newBuilder()
-                .addQueryParameter("subject", "rolroralra")
-                .build()
-                .url();
-
-        String query = url.getQuery();
-
         NexledgerRPCHttpClient nexledgerRPCHttpClient = new NexledgerRPCHttpClient(
                 EndPoint.builder().port(8080).build(),
                 null,
@@ -28,7 +19,10 @@ public class Main {
                 10000
         );
 
-        System.out.println(nexledgerRPCHttpClient.callGetMethod(restApiPath + "?" + query));
+        System.out.println(nexledgerRPCHttpClient.callRouteWithJson(
+                "GET",
+                nexledgerRPCHttpClient.route(restApiPath).expand(),
+                Collections.singletonMap("subject", "rolroralra")));
 
 
         OkHttpClientUtil okHttpClientUtil = OkHttpClientUtil.builder()
@@ -0,0 +1,56 @@
+package com.example.okhttp;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking companion of {@link HttpClient}.
+ * Every call is dispatched with {@code Call.enqueue}, and cancelling the returned future cancels the underlying call.
+ */
+public interface AsyncHttpClient<T> {
+     CompletableFuture<String> callMethodAsync(String httpMethod, String path);
+     CompletableFuture<String> callMethodWithJsonAsync(String httpMethod, String path, Object pathParameterJsonObject);
+     CompletableFuture<String> callMethodWithFormDataAsync(String httpMethod, String path, Map<String, String> pathParameterMap);
+     CompletableFuture<String> callMethodWithMultipartFormDataAsync(String httpMethod, String path, Map<String, String> formParameterMap, List<File> fileList);
+     CompletableFuture<T> callMethodAsync(String httpMethod, String path, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callMethodWithJsonAsync(String httpMethod, String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callMethodWithFormDataAsync(String httpMethod, String path, Map<String, String> formParameterMap, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callMethodWithMultipartFormDataAsync(String httpMethod, String path, Map<String, String> formParameterMap, List<File> fileList, Class<T> returnClass, Class<?> ... parameterClass);
+
+     CompletableFuture<String> callGetMethodAsync(String path);
+     CompletableFuture<String> callGetMethodWithJsonAsync(String path, Object pathParameterJsonObject);
+     CompletableFuture<String> callGetMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap);
+     CompletableFuture<T> callGetMethodAsync(String path, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callGetMethodWithJsonAsync(String path, Object pathParameterJsonObject, Class<T> returnClass, Class<?> ...parameterClass);
+     CompletableFuture<T> callGetMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap, Class<T> returnClass, Class<?> ...parameterClass);
+
+     CompletableFuture<String> callPostMethodAsync(String path);
+     CompletableFuture<String> callPostMethodWithJsonAsync(String path, Object pathParameterJsonObject);
+     CompletableFuture<String> callPostMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap);
+     CompletableFuture<String> callPostMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList);
+     CompletableFuture<T> callPostMethodAsync(String path, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callPostMethodWithJsonAsync(String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callPostMethodWithFormDataAsync(String path, Map<String, String> formParameterMap, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callPostMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList, Class<T> returnClass, Class<?> ... parameterClass);
+
+     CompletableFuture<String> callPutMethodAsync(String path);
+     CompletableFuture<String> callPutMethodWithJsonAsync(String path, Object pathParameterJsonObject);
+     CompletableFuture<String> callPutMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap);
+     CompletableFuture<String> callPutMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList);
+     CompletableFuture<T> callPutMethodAsync(String path, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callPutMethodWithJsonAsync(String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callPutMethodWithFormDataAsync(String path, Map<String, String> formParameterMap, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callPutMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList, Class<T> returnClass, Class<?> ...parameterClass);
+
+     CompletableFuture<String> callDeleteMethodAsync(String path);
+     CompletableFuture<String> callDeleteMethodWithJsonAsync(String path, Object pathParameterJsonObject);
+     CompletableFuture<String> callDeleteMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap);
+     CompletableFuture<String> callDeleteMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList);
+     CompletableFuture<T> callDeleteMethodAsync(String path, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callDeleteMethodWithJsonAsync(String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callDeleteMethodWithFormDataAsync(String path, Map<String, String> formParameterMap, Class<T> returnClass, Class<?> ... parameterClass);
+     CompletableFuture<T> callDeleteMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList, Class<T> returnClass, Class<?> ...parameterClass);
+
+}
@@ -0,0 +1,137 @@
+package com.example.okhttp;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bridges OkHttp {@link Call#enqueue(Callback)} and {@link CompletableFuture}.
+ */
+final class CallFutures {
+    /**
+     * Reads the response body on the OkHttp dispatcher thread, while it streams in.
+     */
+    static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    private CallFutures() {
+    }
+
+    @FunctionalInterface
+    interface ResponseBodyReader<R> {
+        R read(ResponseBody responseBody) throws IOException;
+    }
+
+    /**
+     * Enqueue the call and read the response body on the executor.
+     * Cancelling the returned future cancels the call.
+     *
+     * The body is always received on the dispatcher thread, so the socket reads count against the Dispatcher's
+     * maxRequests/maxRequestsPerHost and never block the executor: with {@link #DIRECT_EXECUTOR} the reader consumes
+     * it there as it streams in, with any other executor it is first buffered (bytes, no String) and only the
+     * reader (e.g. the Gson decode) runs on the executor.
+     */
+    static <R> CompletableFuture<R> enqueue(Call call, ResponseBodyReader<R> reader, Executor executor) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(new RuntimeException(e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                if (executor == DIRECT_EXECUTOR) {
+                    complete(future, response, reader);
+                    return;
+                }
+
+                Response bufferedResponse;
+                try {
+                    bufferedResponse = buffer(response);
+                } catch (IOException e) {
+                    future.completeExceptionally(new RuntimeException(e));
+                    return;
+                }
+
+                try {
+                    executor.execute(() -> complete(future, bufferedResponse, reader));
+                } catch (RejectedExecutionException e) {
+                    future.completeExceptionally(new RuntimeException(e));
+                }
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Wait for the future from a blocking call. Interrupting the waiting thread cancels the future.
+     */
+    static <R> R join(CompletableFuture<R> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    static <R> CompletableFuture<R> failed(Exception e) {
+        return CompletableFuture.failedFuture(new RuntimeException(e));
+    }
+
+    /**
+     * Read the whole body off the socket and close the response.
+     */
+    private static Response buffer(Response response) throws IOException {
+        try (response) {
+            ResponseBody responseBody = Objects.requireNonNull(response.body());
+            Buffer buffer = new Buffer();
+            responseBody.source().readAll(buffer);
+            return response.newBuilder()
+                    .body(ResponseBody.create(buffer, responseBody.contentType(), buffer.size()))
+                    .build();
+        }
+    }
+
+    private static <R> void complete(CompletableFuture<R> future, Response response, ResponseBodyReader<R> reader) {
+        try (response) {
+            if (future.isDone()) {
+                return;
+            }
+
+            ResponseBody responseBody = Objects.requireNonNull(response.body());
+
+            // Response Status Check
+            if (!response.isSuccessful() && !response.isRedirect()) {
+                future.completeExceptionally(new RuntimeException("Response is not successful. " + responseBody.string()));
+            } else {
+                future.complete(reader.read(responseBody));
+            }
+        } catch (Exception e) {
+            future.completeExceptionally(new RuntimeException(e));
+        }
+    }
+}
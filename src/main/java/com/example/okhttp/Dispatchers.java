@@ -0,0 +1,49 @@
+package com.example.okhttp;
+
+import com.example.okhttp.model.ConnectionPoolOption;
+import com.example.okhttp.model.DispatcherOption;
+import okhttp3.Dispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Builds an OkHttp {@link Dispatcher} sized consistently with the connection pool.
+ */
+final class Dispatchers {
+    private static final Logger log = LoggerFactory.getLogger(Dispatchers.class);
+
+    private Dispatchers() {
+    }
+
+    /**
+     *
+     * @param dispatcherOption maxRequests, maxRequestsPerHost, executorService
+     * @param connectionPoolOption maxConnectionCount is used for limits left at FOLLOW_CONNECTION_POOL
+     * @param defaultExecutorService used when dispatcherOption has no executorService (null: OkHttp default)
+     */
+    static Dispatcher create(DispatcherOption dispatcherOption, ConnectionPoolOption connectionPoolOption, ExecutorService defaultExecutorService) {
+        ExecutorService executorService = dispatcherOption.getExecutorService() != null
+                ? dispatcherOption.getExecutorService()
+                : defaultExecutorService;
+        Dispatcher dispatcher = executorService != null ? new Dispatcher(executorService) : new Dispatcher();
+
+        int maxConnectionCount = connectionPoolOption.getMaxConnectionCount();
+        int maxRequests = resolve(dispatcherOption.getMaxRequests(), maxConnectionCount);
+        int maxRequestsPerHost = Math.min(resolve(dispatcherOption.getMaxRequestsPerHost(), maxConnectionCount), maxRequests);
+
+        if (maxRequestsPerHost > maxConnectionCount) {
+            log.warn("maxRequestsPerHost({}) exceeds maxConnectionCount({}). Connections beyond the pool size are not kept alive.",
+                    maxRequestsPerHost, maxConnectionCount);
+        }
+
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        return dispatcher;
+    }
+
+    private static int resolve(int value, int maxConnectionCount) {
+        return value == DispatcherOption.FOLLOW_CONNECTION_POOL ? maxConnectionCount : value;
+    }
+}
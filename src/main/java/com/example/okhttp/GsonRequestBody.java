@@ -0,0 +1,69 @@
+package com.example.okhttp;
+
+import com.example.okhttp.model.RequestBodyOption;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RequestBody writing Gson output directly into the Okio sink.
+ * No intermediate JSON String or byte[] is created; the body is sent with chunked transfer encoding.
+ */
+public class GsonRequestBody extends RequestBody {
+    public final static MediaType DEFAULT_MEDIA_TYPE = MediaType.parse("application/json; charset=utf-8");
+
+    private final Gson gson;
+    private final Object jsonObject;
+    private final Type type;
+    private final MediaType mediaType;
+    private final RequestBodyOption requestBodyOption;
+
+    public GsonRequestBody(Gson gson, Object jsonObject) {
+        this(gson, jsonObject, jsonObject.getClass(), DEFAULT_MEDIA_TYPE, new RequestBodyOption());
+    }
+
+    public GsonRequestBody(Gson gson, Object jsonObject, Type type, MediaType mediaType, RequestBodyOption requestBodyOption) {
+        this.gson = gson;
+        this.jsonObject = jsonObject;
+        this.type = type;
+        this.mediaType = mediaType;
+        this.requestBodyOption = requestBodyOption;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return this.mediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return this.requestBodyOption.isOneShot();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        // Do not close the writer: the sink is owned by OkHttp.
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(sink.outputStream(), StandardCharsets.UTF_8),
+                this.requestBodyOption.getBufferSize()
+        );
+        JsonWriter jsonWriter = this.gson.newJsonWriter(writer);
+
+        this.gson.toJson(this.jsonObject, this.type, jsonWriter);
+        jsonWriter.flush();
+    }
+}
@@ -1,21 +1,64 @@
 package com.example.okhttp;
 
+import com.example.okhttp.cache.LruResponseCache;
+import com.example.okhttp.cache.ResponseCache;
+import com.example.okhttp.cache.ResponseCacheInterceptor;
+import com.example.okhttp.circuitbreaker.CircuitBreakerInterceptor;
+import com.example.okhttp.circuitbreaker.CircuitBreakerRegistry;
+import com.example.okhttp.coalesce.CoalescingInterceptor;
+import com.example.okhttp.compress.CompressionMetrics;
+import com.example.okhttp.compress.RequestCompressionInterceptor;
+import com.example.okhttp.download.DownloadResult;
+import com.example.okhttp.hedge.HedgingExecutor;
+import com.example.okhttp.http2.MultiplexingInterceptor;
+import com.example.okhttp.http2.MultiplexingMetrics;
+import com.example.okhttp.loadbalance.LoadBalancedEndPoint;
+import com.example.okhttp.loadbalance.LoadBalancingInterceptor;
+import com.example.okhttp.metrics.InMemoryMetricsRegistry;
+import com.example.okhttp.metrics.MetricsEventListener;
+import com.example.okhttp.metrics.MetricsRegistry;
+import com.example.okhttp.model.CacheOption;
+import com.example.okhttp.model.CircuitBreakerOption;
+import com.example.okhttp.model.CoalescingOption;
 import com.example.okhttp.model.ConnectionPoolOption;
+import com.example.okhttp.model.DispatcherOption;
+import com.example.okhttp.model.DownloadOption;
 import com.example.okhttp.model.EndPoint;
+import com.example.okhttp.model.HedgingOption;
+import com.example.okhttp.model.Http2Option;
+import com.example.okhttp.model.HttpVersion;
+import com.example.okhttp.model.RequestBodyOption;
+import com.example.okhttp.model.RequestCompressionOption;
+import com.example.okhttp.model.RetryOption;
+import com.example.okhttp.model.RpcOption;
 import com.example.okhttp.model.Timeout;
+import com.example.okhttp.model.UploadOption;
+import com.example.okhttp.multipart.FilePart;
+import com.example.okhttp.retry.RetryInterceptor;
+import com.example.okhttp.retry.RetryMetrics;
+import com.example.okhttp.route.Route;
+import com.example.okhttp.route.RouteTemplate;
+import com.example.okhttp.upload.ChunkedUploader;
+import com.example.okhttp.upload.UploadResult;
+import com.example.okhttp.rpc.JsonRpcClient;
+import com.example.okhttp.rpc.RpcBatch;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonElement;
 import lombok.Getter;
 import okhttp3.*;
 import okhttp3.OkHttpClient.Builder;
 
 import java.io.File;
-import java.lang.reflect.Field;
+import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.net.Proxy;
-import java.net.URL;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
@@ -24,13 +67,27 @@ import java.util.*;
  * @author: shyoung.kim@samsung.com
  *
  */
-public class NexledgerRPCHttpClient<T> implements HttpClient<T> {
+public class NexledgerRPCHttpClient<T> implements HttpClient<T>, AsyncHttpClient<T> {
     private OkHttpClient okHttpClient;
     private EndPoint endPoint;
     private EndPoint proxy;
 
     private Gson gson;
     private Gson gsonPretty;
+    private Executor parseExecutor = ForkJoinPool.commonPool();
+    private RequestBodyOption requestBodyOption = new RequestBodyOption();
+    private ConnectionPoolOption connectionPoolOption;
+    private RetryInterceptor retryInterceptor;
+    private HedgingExecutor hedgingExecutor;
+    private CircuitBreakerInterceptor circuitBreakerInterceptor;
+    private RequestCompressionOption requestCompressionOption;
+    private RequestCompressionInterceptor requestCompressionInterceptor;
+    private ResponseCacheInterceptor responseCacheInterceptor;
+    private CoalescingInterceptor coalescingInterceptor;
+    private MultiplexingInterceptor multiplexingInterceptor;
+    private MetricsRegistry metricsRegistry = new InMemoryMetricsRegistry();
+    private JsonRpcClient jsonRpcClient;
+    private RequestExecutor<T> requestExecutor;
     public static MediaType DEFAULT_MEDIA_TYPE = MediaType.parse("application/json");
 
     @Getter
@@ -78,7 +135,7 @@ public class NexledgerRPCHttpClient<T> implements HttpClient<T> {
         try {
             this.init(new EndPoint(), null,
                     Timeout.DEFAULT_READ_TIMEOUT, Timeout.DEFAULT_WRITE_TIMEOUT, Timeout.DEFAULT_CONNECT_TIMEOUT,
-                    null, new Gson());
+                    null, null, new Gson());
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -95,7 +152,7 @@ public class NexledgerRPCHttpClient<T> implements HttpClient<T> {
         try {
             this.init(endPoint, null,
                     readTimout, writeTimeout, connectTimeout, 
-                    null, null);
+                    null, null, null);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -109,7 +166,7 @@ public class NexledgerRPCHttpClient<T> implements HttpClient<T> {
     public NexledgerRPCHttpClient(EndPoint endPoint, Timeout timeout) {
         this.init(endPoint, null,
                 timeout.getReadTimeout(), timeout.getWriteTimeout(), timeout.getConnectTimeout(),
-                null, null);
+                null, null, null);
     }
 
     /**
@@ -121,7 +178,7 @@ public class NexledgerRPCHttpClient<T> implements HttpClient<T> {
     public NexledgerRPCHttpClient(EndPoint endPoint, EndPoint proxy, Timeout timeout) {
         try {
             this.init(endPoint, proxy, timeout.getReadTimeout(), timeout.getWriteTimeout(),
-                    timeout.getConnectTimeout(), null, null);
+                    timeout.getConnectTimeout(), null, null, null);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -138,7 +195,25 @@ public class NexledgerRPCHttpClient<T> implements HttpClient<T> {
     public NexledgerRPCHttpClient(EndPoint endPoint, EndPoint proxy, int readTimeout,
                                   int writeTimeout, int connectionTimeout) {
         try {
-            this.init(endPoint,  proxy, readTimeout, writeTimeout, connectionTimeout, null, null);
+            this.init(endPoint,  proxy, readTimeout, writeTimeout, connectionTimeout, null, null, null);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     *
+     * @param endPoint endPoint (Host, Port, UserName, Password)
+     * @param proxy proxy (Host, Port, UserName, Password)
+     * @param timeout timeout option (read, write, connect)
+     * @param connectionPoolOption maxConnectionCount, keepAliveDuration(MilliSeconds), retryCount
+     * @param dispatcherOption maxRequests, maxRequestsPerHost, executorService (async calls)
+     */
+    public NexledgerRPCHttpClient(EndPoint endPoint, EndPoint proxy, Timeout timeout,
+                                  ConnectionPoolOption connectionPoolOption, DispatcherOption dispatcherOption) {
+        try {
+            this.init(endPoint, proxy, timeout.getReadTimeout(), timeout.getWriteTimeout(),
+                    timeout.getConnectTimeout(), connectionPoolOption, dispatcherOption, null);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -152,11 +227,12 @@ public class NexledgerRPCHttpClient<T> implements HttpClient<T> {
      * @param writeTimeout timeout option (write, MilliSeconds)
      * @param connectTimeout timeout option (connect, MilliSeconds)
      * @param connectionPoolOption maxConnectionCount, keepAliveDuration(MilliSeconds), retryCount
+     * @param dispatcherOption maxRequests, maxRequestsPerHost, executorService (async calls)
      * @param gson com.google.gson.Gson
      */
     private void init(EndPoint endPoint, EndPoint proxy,
                       int readTimeout, int writeTimeout, int connectTimeout,
-                      ConnectionPoolOption connectionPoolOption, Gson gson) {
+                      ConnectionPoolOption connectionPoolOption, DispatcherOption dispatcherOption, Gson gson) {
         try {
             if (gson != null) {
                 this.gson = gson;
@@ -186,6 +262,31 @@ public class NexledgerRPCHttpClient<T> implements HttpClient<T> {
                 );
             }
 
+            builder.dispatcher(
+                    Dispatchers.create(
+                            dispatcherOption != null ? dispatcherOption : new DispatcherOption(),
+                            connectionPoolOption != null ? connectionPoolOption : new ConnectionPoolOption(),
+                            null)
+            );
+
+            this.connectionPoolOption = connectionPoolOption != null ? connectionPoolOption : new ConnectionPoolOption();
+            this.retryInterceptor = new RetryInterceptor(this.connectionPoolOption.getRetryCount(), new RetryOption());
+            builder.addInterceptor(this.retryInterceptor);
+
+            if (endPoint instanceof LoadBalancedEndPoint) {
+                builder.addInterceptor(new LoadBalancingInterceptor((LoadBalancedEndPoint) endPoint));
+            }
+
+            HttpVersion httpVersion = endPoint.getHttpVersion();
+            if (httpVersion != null) {
+                if (httpVersion == HttpVersion.H2_PRIOR_KNOWLEDGE && "https".equalsIgnoreCase(endPoint.getProtocol())) {
+                    throw new RuntimeException("H2_PRIOR_KNOWLEDGE requires a cleartext (http) EndPoint. Use HTTP_2 for https.");
+                }
+                builder.protocols(httpVersion.getProtocols());
+            }
+
+            builder.eventListenerFactory(new MetricsEventListener.Factory(this.metricsRegistry, this::canceled));
+
             if (proxy != null) {
                 this.proxy = proxy;
                 Proxy javaNetProxy = new Proxy(Proxy.Type.HTTP, new InetSocketAddress(proxy.getHost(), proxy.getPort()));
@@ -195,321 +296,435 @@ public class NexledgerRPCHttpClient<T> implements HttpClient<T> {
             this.okHttpClient = builder.build();
 
             this.endPoint = endPoint;
+            this.requestExecutor = new RequestExecutor<>(this.okHttpClient, endPoint, this.gson, this.requestBodyOption,
+                    this.parseExecutor, this.metricsRegistry);
+            this.jsonRpcClient = new JsonRpcClient(this.gson, new RpcOption(), this::sendRpc);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
-    private String getRestApiUrl(String path) {
-        try {
-            String url = this.endPoint.getUrl() + path;
-            return url;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     *
+     * @param parseExecutor executor on which the async API parses response bodies with Gson (default: ForkJoinPool.commonPool())
+     */
+    public void setParseExecutor(Executor parseExecutor) {
+        this.parseExecutor = Objects.requireNonNull(parseExecutor);
+        this.requestExecutor.setParseExecutor(parseExecutor);
     }
 
-    private String getRestApiUrl(String path, Object object) {
-        try {
-            HttpUrl.Builder httpUrlBuilder
-                    = Objects.requireNonNull(
-                    HttpUrl.parse(this.getRestApiUrl(path))
-            ).newBuilder();
-
-            for (Field field : object.getClass().getDeclaredFields()) {
-                field.setAccessible(true);
-                if (field.get(object) != null) {
-                    httpUrlBuilder.addQueryParameter(field.getName(), field.get(object).toString());
-                }
-                field.setAccessible(false);
-            }
+    /**
+     *
+     * @param retryOption backoff, idempotency and retry budget option (the number of retries is ConnectionPoolOption.retryCount)
+     */
+    public void setRetryOption(RetryOption retryOption) {
+        RetryInterceptor retryInterceptor = new RetryInterceptor(this.connectionPoolOption.getRetryCount(), retryOption);
+        this.setOkHttpClient(OkHttpClients.replaceInterceptor(this.okHttpClient, this.retryInterceptor, retryInterceptor));
+        this.retryInterceptor = retryInterceptor;
+    }
 
-            URL url = httpUrlBuilder.build().url();
-            return url.toString();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     *
+     * @param cacheOption cache GET responses in a heap LRU / TTL tier (and optionally on disk with HTTP cache semantics)
+     */
+    public void setCacheOption(CacheOption cacheOption) {
+        this.setCacheOption(cacheOption, new LruResponseCache(cacheOption));
     }
 
-    private String getRestApiUrl(String path, Map<String, String> queryParams) {
-        try {
-            HttpUrl.Builder httpUrlBuilder
-                    = Objects.requireNonNull(
-                    HttpUrl.parse(this.getRestApiUrl(path))
-            ).newBuilder();
+    /**
+     *
+     * @param cacheOption cache GET responses in a heap LRU / TTL tier (and optionally on disk with HTTP cache semantics)
+     * @param responseCache custom heap cache implementation
+     */
+    public void setCacheOption(CacheOption cacheOption, ResponseCache responseCache) {
+        ResponseCacheInterceptor responseCacheInterceptor = new ResponseCacheInterceptor(responseCache, cacheOption);
+        OkHttpClient okHttpClient = OkHttpClients.replaceInterceptor(this.okHttpClient, this.responseCacheInterceptor, responseCacheInterceptor, 0);
+
+        if (cacheOption.getDiskCacheDirectory() != null) {
+            okHttpClient = okHttpClient.newBuilder()
+                    .cache(new Cache(cacheOption.getDiskCacheDirectory(), cacheOption.getDiskCacheMaxSize()))
+                    .build();
+        }
 
-            queryParams.forEach(httpUrlBuilder::addQueryParameter);
+        this.setOkHttpClient(okHttpClient);
+        this.responseCacheInterceptor = responseCacheInterceptor;
+        this.requestExecutor.setObjectCache(cacheOption.isCacheObjects() ? responseCache : null);
+    }
 
-            URL url = httpUrlBuilder.build().url();
-            return url.toString();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+    /**
+     *
+     * @param coalescingOption let identical concurrent GET requests share one in-flight network call
+     */
+    public void setCoalescingOption(CoalescingOption coalescingOption) {
+        CoalescingInterceptor coalescingInterceptor = new CoalescingInterceptor(coalescingOption);
+        this.setOkHttpClient(OkHttpClients.replaceInterceptor(this.okHttpClient, this.coalescingInterceptor, coalescingInterceptor,
+                this.responseCacheInterceptor != null ? 1 : 0));
+        this.coalescingInterceptor = coalescingInterceptor;
+    }
+
+    /**
+     *
+     * @param metricsRegistry registry of the request lifecycle metrics (default: InMemoryMetricsRegistry)
+     */
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.setOkHttpClient(this.okHttpClient.newBuilder()
+                .eventListenerFactory(new MetricsEventListener.Factory(Objects.requireNonNull(metricsRegistry), this::canceled))
+                .build());
+        this.metricsRegistry = metricsRegistry;
+        this.requestExecutor.setMetricsRegistry(metricsRegistry);
+
+        // the compression interceptor records into the registry
+        if (this.requestCompressionOption != null) {
+            this.setRequestCompressionOption(this.requestCompressionOption);
         }
     }
 
-    private T parseGson(String jsonString, Class<T> returnClass, Class<?> ... parameterClass) {
-        T result;
-        try {
-            if (parameterClass.length > 0) {
-                result = gson.fromJson(jsonString, TypeToken.getParameterized(returnClass, parameterClass).getType());
-            }
-            else {
-                result = gson.fromJson(jsonString, returnClass);
-            }
-        } catch (Exception e){
-            throw new RuntimeException(e);
+    /**
+     *
+     * @param http2Option PING interval of HTTP/2 connections (also enables the multiplexing metrics)
+     */
+    public void setHttp2Option(Http2Option http2Option) {
+        MultiplexingInterceptor multiplexingInterceptor = new MultiplexingInterceptor();
+        OkHttpClient.Builder builder = this.okHttpClient.newBuilder()
+                .pingInterval(http2Option.getPingInterval(), http2Option.getTimeUnit());
+
+        List<Interceptor> networkInterceptors = builder.networkInterceptors();
+        int index = networkInterceptors.indexOf(this.multiplexingInterceptor);
+        if (index >= 0) {
+            networkInterceptors.set(index, multiplexingInterceptor);
+        } else {
+            networkInterceptors.add(multiplexingInterceptor);
         }
 
-        return result;
+        this.setOkHttpClient(builder.build());
+        this.multiplexingInterceptor = multiplexingInterceptor;
     }
 
-    // TODO: Handle Response. (if not successful response)
-    // response.isSuccessful();
-    // response.isRedirect();
-    @Override
-    public String callMethod(String httpMethod, String path) {
-        String result;
-        try {
-            // Request.Builder
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(this.getRestApiUrl(path));
-
-            // HttpMethod
-            switch(httpMethod.toUpperCase()) {
-                case "GET":
-                    requestBuilder.get();
-                    break;
-                case "POST":
-                case "PUT":
-                case "DELETE":
-                    // RequestBody Builder
-                    requestBuilder.method(
-                            httpMethod,
-                            RequestBody.create(new byte[0], DEFAULT_MEDIA_TYPE)
-                    );
-                    break;
-                default:
-                    throw new RuntimeException("Http Method Not Supported. " + httpMethod);
-            }
+    /**
+     *
+     * @param circuitBreakerOption fail fast per endpoint while its failure rate or slow call rate is above the threshold
+     */
+    public void setCircuitBreakerOption(CircuitBreakerOption circuitBreakerOption) {
+        CircuitBreakerInterceptor circuitBreakerInterceptor = new CircuitBreakerInterceptor(new CircuitBreakerRegistry(circuitBreakerOption));
+        this.setOkHttpClient(OkHttpClients.replaceInterceptor(this.okHttpClient, this.circuitBreakerInterceptor, circuitBreakerInterceptor));
+        this.circuitBreakerInterceptor = circuitBreakerInterceptor;
+    }
 
-            // Request
-            Request request = requestBuilder.build();
+    /**
+     *
+     * @param requestCompressionOption gzip / deflate request bodies of at least minSize bytes while they are sent
+     */
+    public void setRequestCompressionOption(RequestCompressionOption requestCompressionOption) {
+        RequestCompressionInterceptor requestCompressionInterceptor = new RequestCompressionInterceptor(requestCompressionOption, this.metricsRegistry);
+        this.setOkHttpClient(OkHttpClients.replaceInterceptor(this.okHttpClient, this.requestCompressionInterceptor, requestCompressionInterceptor));
+        this.requestCompressionOption = requestCompressionOption;
+        this.requestCompressionInterceptor = requestCompressionInterceptor;
+    }
 
-            // Response
-            Response response = okHttpClient.newCall(request).execute();
-            result = Objects.requireNonNull(response.body()).string();
+    /**
+     *
+     * @param hedgingOption hedge GET calls slower than the configured latency percentile (null: disabled)
+     */
+    public void setHedgingOption(HedgingOption hedgingOption) {
+        this.hedgingExecutor = hedgingOption != null ? new HedgingExecutor(hedgingOption) : null;
+        this.requestExecutor.setHedgingExecutor(this.hedgingExecutor);
+    }
 
-            // Response Status Check
-            if (!response.isSuccessful() && !response.isRedirect()) {
-                throw new RuntimeException("Response is not successful. " + result);
-            }
-        } catch (Exception e){
-            throw new RuntimeException(e);
-        }
+    /**
+     *
+     * @param rpcOption JSON-RPC endpoint path and automatic micro-batching (calls still pending are sent first)
+     */
+    public void setRpcOption(RpcOption rpcOption) {
+        JsonRpcClient jsonRpcClient = new JsonRpcClient(this.gson, Objects.requireNonNull(rpcOption), this::sendRpc);
+        this.jsonRpcClient.flush();
+        this.jsonRpcClient = jsonRpcClient;
+    }
 
-        return result;
+    /**
+     *
+     * @param requestBodyOption oneShot, bufferSize (streaming JSON request bodies)
+     */
+    public void setRequestBodyOption(RequestBodyOption requestBodyOption) {
+        this.requestBodyOption = Objects.requireNonNull(requestBodyOption);
+        this.requestExecutor.setRequestBodyOption(requestBodyOption);
     }
 
-    @Override
-    public String callMethodWithJson(String httpMethod, String path, Object jsonObject) {
-        String result;
-        try {
-            // Request.Builder
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(this.getRestApiUrl(path));
-
-            // HttpMethod
-            switch(httpMethod.toUpperCase()) {
-                case "GET":
-                    requestBuilder
-                            .url(this.getRestApiUrl(path, jsonObject))
-                            .get();
-                    break;
-                case "POST":
-                case "PUT":
-                case "DELETE":
-                    // RequestBody Builder
-                    RequestBody requestBody = RequestBody.create(
-                            gson.toJson(jsonObject, jsonObject.getClass()),
-                            MediaType.parse("application/json")
-                    );
-
-                    requestBuilder.method(httpMethod, requestBody);
-                    break;
-                default:
-                    throw new RuntimeException("Http Method Not Supported. " + httpMethod);
-            }
+    // keeps the request executor on the client carrying the current interceptors
+    private void setOkHttpClient(OkHttpClient okHttpClient) {
+        this.okHttpClient = okHttpClient;
+        this.requestExecutor.setOkHttpClient(okHttpClient);
+    }
+
+    /**
+     * Heap response cache and its hit / miss counters (null when the cache is disabled).
+     */
+    public ResponseCache getResponseCache() {
+        return this.responseCacheInterceptor != null ? this.responseCacheInterceptor.getResponseCache() : null;
+    }
 
-            // Request
-            Request request = requestBuilder.build();
+    /**
+     * OkHttp disk cache (null when disabled). hitCount(), networkCount() and requestCount() report its hit rate.
+     */
+    public Cache getDiskCache() {
+        return this.okHttpClient.cache();
+    }
 
-            // Response
-            Response response = okHttpClient.newCall(request).execute();
-            result = Objects.requireNonNull(response.body()).string();
+    /**
+     * Request lifecycle metrics (per-phase latencies, bytes, connection reuse) tagged by endpoint, method and path template.
+     */
+    public MetricsRegistry getMetricsRegistry() {
+        return this.metricsRegistry;
+    }
 
-            // Response Status Check
-            if (!response.isSuccessful() && !response.isRedirect()) {
-                throw new RuntimeException("Response is not successful. " + result);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * HTTP/2 multiplexing depth (streams per connection) and HTTP/1.1 request counts (null when no Http2Option is set).
+     */
+    public MultiplexingMetrics getMultiplexingMetrics() {
+        return this.multiplexingInterceptor != null ? this.multiplexingInterceptor.getMetrics() : null;
+    }
 
-        return result;
+    /**
+     * Single-flight counters (null when coalescing is disabled).
+     */
+    public CoalescingInterceptor getCoalescingInterceptor() {
+        return this.coalescingInterceptor;
     }
 
-    @Override
-    public String callMethodWithFormData(String httpMethod, String path, Map<String, String> parameterMap) {
-        String result;
-        try {
-            // Request.Builder
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(this.getRestApiUrl(path));
-
-            // HttpMethod
-            switch(httpMethod.toUpperCase()) {
-                case "GET":
-                    requestBuilder.url(this.getRestApiUrl(path, parameterMap))
-                            .get();
-                    break;
-                case "POST":
-                case "PUT":
-                case "DELETE":
-                    // FormBody.Builder (RequestBodyBuilder)
-                    FormBody.Builder formBodyBuilder = new FormBody.Builder();
-                    parameterMap.forEach(formBodyBuilder::add);
-
-                    RequestBody requestBody = formBodyBuilder.build();
-                    requestBuilder.method(httpMethod, requestBody);
-                    break;
-                default:
-                    throw new RuntimeException("Http Method Not Supported. " + httpMethod);
-            }
+    /**
+     * Per-endpoint circuit breakers (null when the circuit breaker is disabled).
+     */
+    public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+        return this.circuitBreakerInterceptor != null ? this.circuitBreakerInterceptor.getCircuitBreakerRegistry() : null;
+    }
 
-            // Request
-            Request request = requestBuilder.build();
+    /**
+     * Request compression ratio and CPU time (null when request compression is disabled).
+     */
+    public CompressionMetrics getCompressionMetrics() {
+        return this.requestCompressionInterceptor != null ? this.requestCompressionInterceptor.getCompressionMetrics() : null;
+    }
 
-            // Response
-            Response response = okHttpClient.newCall(request).execute();
-            result = Objects.requireNonNull(response.body()).string();
+    /**
+     * Hedging counters and current hedge delay (null when hedging is disabled).
+     */
+    public HedgingExecutor getHedgingExecutor() {
+        return this.hedgingExecutor;
+    }
 
-            // Response Status Check
-            if (!response.isSuccessful() && !response.isRedirect()) {
-                throw new RuntimeException("Response is not successful. " + result);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * Retry counters and backoff time (live view).
+     */
+    public RetryMetrics getRetryMetrics() {
+        return this.retryInterceptor.getRetryMetrics();
+    }
 
-        return result;
+    /**
+     * Number of async calls currently running (live view of the Dispatcher).
+     */
+    public int getRunningCallsCount() {
+        return this.okHttpClient.dispatcher().runningCallsCount();
     }
 
-    @Override
-    public String callMethodWithMultipartFormData(String httpMethod, String path, Map<String, String> parameterMap, List<File> fileList) {
-        String result;
-        try {
-            // Request.Builder
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(this.getRestApiUrl(path));
-
-            // HttpMethod
-            switch(httpMethod.toUpperCase()) {
-                case "GET":
-                    requestBuilder.url(this.getRestApiUrl(path, parameterMap))
-                            .get();
-                    break;
-                case "POST":
-                case "PUT":
-                case "DELETE":
-                    // RequestBodyBuilder
-                    MultipartBody.Builder requestBodyBuilder = new MultipartBody.Builder()
-                            .setType(MultipartBody.FORM);
-
-                    for (File file : fileList) {
-                        requestBodyBuilder.addFormDataPart(
-                                "file",
-                                file.getName(),
-                                RequestBody.create(file, MediaType.parse("text/plain"))
-                        );
-                    }
-
-                    for (String key : parameterMap.keySet()) {
-                        requestBodyBuilder.addFormDataPart(key, parameterMap.get(key));
-                    }
-
-                    RequestBody requestBody = requestBodyBuilder.build();
-                    requestBuilder.method(httpMethod, requestBody);
-                    break;
-                default:
-                    throw new RuntimeException("Http Method Not Supported. " + httpMethod);
-            }
+    /**
+     * Number of async calls waiting for a Dispatcher slot (live view of the Dispatcher).
+     */
+    public int getQueuedCallsCount() {
+        return this.okHttpClient.dispatcher().queuedCallsCount();
+    }
 
-            // Request
-            Request request = requestBuilder.build();
+    /**
+     * Route template parsed once against the endpoint url and cached per template.
+     *
+     * @param template path template, e.g. /block/{height}/tx/{id}
+     */
+    public RouteTemplate route(String template) {
+        return this.requestExecutor.route(template);
+    }
 
-            // Response
-            Response response = okHttpClient.newCall(request).execute();
-            result = Objects.requireNonNull(response.body()).string();
+    public String callRoute(String httpMethod, Route route) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequest(httpMethod, route));
+    }
 
-            // Response Status Check
-            if (!response.isSuccessful() && !response.isRedirect()) {
-                throw new RuntimeException("Response is not successful. " + result);
-            }
-        } catch (Exception e){
-            throw new RuntimeException(e);
-        }
+    public String callRouteWithJson(String httpMethod, Route route, Object jsonObject) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithJson(httpMethod, route, jsonObject));
+    }
 
-        return result;
+    public T callRoute(String httpMethod, Route route, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequest(httpMethod, route), returnClass, parameterClass);
     }
 
-    public T callMethod(String httpMethod, String path, Class<T> returnClass, Class<?> ... parameterClass) {
-        T result;
-        try {
-            String responseBodyString = this.callMethod(httpMethod, path);
+    public T callRouteWithJson(String httpMethod, Route route, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithJson(httpMethod, route, jsonObject), returnClass, parameterClass);
+    }
 
-            result = this.parseGson(responseBodyString, returnClass, parameterClass);
-        } catch (Exception e){
-            throw new RuntimeException(e);
-        }
+    public CompletableFuture<String> callRouteAsync(String httpMethod, Route route) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequest(httpMethod, route));
+    }
 
-        return result;
+    public CompletableFuture<String> callRouteWithJsonAsync(String httpMethod, Route route, Object jsonObject) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithJson(httpMethod, route, jsonObject));
     }
 
-    public T callMethodWithJson(String httpMethod, String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
-        T result;
-        try {
-            String responseBodyString = this.callMethodWithJson(httpMethod, path, jsonObject);
-            result = this.parseGson(responseBodyString, returnClass, parameterClass);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+    public CompletableFuture<T> callRouteAsync(String httpMethod, Route route, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequest(httpMethod, route), returnClass, parameterClass);
+    }
+
+    public CompletableFuture<T> callRouteWithJsonAsync(String httpMethod, Route route, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithJson(httpMethod, route, jsonObject), returnClass, parameterClass);
+    }
+
+    public DownloadResult download(String path, Path target) {
+        return this.download(path, target, new DownloadOption());
+    }
+
+    /**
+     * Stream the response body into the target file; heap use does not depend on the file size.
+     * With downloadOption.segmentCount > 1 byte ranges are fetched concurrently if the server accepts ranges.
+     *
+     * @param path path
+     * @param target target file (replaced atomically with downloadOption.atomic)
+     * @param downloadOption transfer size, checksum, progress
+     */
+    public DownloadResult download(String path, Path target, DownloadOption downloadOption) {
+        return this.requestExecutor.download(path, target, downloadOption);
+    }
+
+    public DownloadResult download(String path, WritableByteChannel channel) {
+        return this.download(path, channel, new DownloadOption());
+    }
+
+    /**
+     * Stream the response body into the channel; the channel is not closed.
+     *
+     * @param path path
+     * @param channel target channel
+     * @param downloadOption transfer size, checksum, progress
+     */
+    public DownloadResult download(String path, WritableByteChannel channel, DownloadOption downloadOption) {
+        return this.requestExecutor.download(path, channel, downloadOption);
+    }
+
+    public UploadResult upload(String path, File file) {
+        return this.upload(path, file, new UploadOption());
+    }
+
+    /**
+     * Upload the file in parts with bounded parallelism (see {@link ChunkedUploader}).
+     * Progress is kept in a state file, so calling it again after a failure only uploads the missing parts.
+     *
+     * @param path path of the part requests
+     * @param file file
+     * @param uploadOption part size, parallelism, retries, completion path
+     */
+    public UploadResult upload(String path, File file, UploadOption uploadOption) {
+        return this.requestExecutor.upload(path, file, uploadOption);
+    }
+
+    // EventListener.canceled: wakes up a call waiting for a coalesced response
+    private void canceled(Call call) {
+        CoalescingInterceptor coalescingInterceptor = this.coalescingInterceptor;
+        if (coalescingInterceptor != null) {
+            coalescingInterceptor.canceled(call);
         }
+    }
 
-        return result;
+    /**
+     * Send the JSON-RPC request object or batch array with POST and parse the response body into a JsonElement.
+     */
+    private CompletableFuture<JsonElement> sendRpc(Object payload) {
+        return this.requestExecutor.callAsync(
+                () -> this.requestExecutor.buildRequestWithJson("POST", this.jsonRpcClient.getRpcOption().getPath(), payload),
+                responseBody -> gson.fromJson(gson.newJsonReader(responseBody.charStream()), JsonElement.class)
+        );
     }
 
-    public T callMethodWithFormData(String httpMethod, String path, Map<String, String> parameterMap, Class<T> returnClass, Class<?> ...parameterClass) {
-        T result;
+    /**
+     * JSON-RPC 2.0 call (batched with concurrent calls when RpcOption.autoBatching is enabled).
+     * An error object in the response is thrown as RpcException.
+     *
+     * @param method JSON-RPC method
+     * @param params positional (array / List) or named (object / Map) parameters, may be null
+     * @param resultClass result type
+     * @param parameterClass type parameters of resultClass
+     */
+    public <R> R rpc(String method, Object params, Class<R> resultClass, Class<?> ... parameterClass) {
         try {
-            String responseBodyString = this.callMethodWithFormData(httpMethod, path, parameterMap);
-            result = this.parseGson(responseBodyString, returnClass, parameterClass);
-        } catch (Exception e) {
+            return CallFutures.join(this.rpcAsync(method, params, resultClass, parameterClass));
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
+    }
+
+    public <R> CompletableFuture<R> rpcAsync(String method, Object params, Class<R> resultClass, Class<?> ... parameterClass) {
+        return this.jsonRpcClient.call(method, params, resultClass, parameterClass);
+    }
+
+    /**
+     * New explicit JSON-RPC batch; its calls are sent in one POST by RpcBatch.execute().
+     */
+    public RpcBatch rpcBatch() {
+        return this.jsonRpcClient.batch();
+    }
+
+    @Override
+    public String callMethod(String httpMethod, String path) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequest(httpMethod, path));
+    }
+
+    @Override
+    public String callMethodWithJson(String httpMethod, String path, Object jsonObject) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithJson(httpMethod, path, jsonObject));
+    }
+
+    @Override
+    public String callMethodWithFormData(String httpMethod, String path, Map<String, String> parameterMap) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithFormData(httpMethod, path, parameterMap));
+    }
+
+    @Override
+    public String callMethodWithMultipartFormData(String httpMethod, String path, Map<String, String> parameterMap, List<File> fileList) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithMultipartFormData(httpMethod, path, parameterMap, fileList));
+    }
+
+    public T callMethod(String httpMethod, String path, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequest(httpMethod, path), returnClass, parameterClass);
+    }
+
+    public T callMethodWithJson(String httpMethod, String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithJson(httpMethod, path, jsonObject), returnClass, parameterClass);
+    }
 
-        return result;
+    public T callMethodWithFormData(String httpMethod, String path, Map<String, String> parameterMap, Class<T> returnClass, Class<?> ...parameterClass) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithFormData(httpMethod, path, parameterMap), returnClass, parameterClass);
     }
 
     @Override
     public T callMethodWithMultipartFormData(String httpMethod, String path, Map<String, String> parameterMap, List<File> fileList, Class<T> returnClass, Class<?> ...parameterClass) {
-        T result;
-        try {
-            String responseBodyString = this.callMethodWithMultipartFormData(httpMethod, path, parameterMap, fileList);
-            result = this.parseGson(responseBodyString, returnClass, parameterClass);
-        } catch (Exception e){
-            throw new RuntimeException(e);
-        }
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithMultipartFormData(httpMethod, path, parameterMap, fileList), returnClass, parameterClass);
+    }
+
+    /**
+     * Multipart form data with per-part name, content type, source (file, memory-mapped file, memory) and compression.
+     *
+     * @param httpMethod http method
+     * @param path path
+     * @param parameterMap form fields
+     * @param filePartList file parts
+     */
+    public String callMethodWithFileParts(String httpMethod, String path, Map<String, String> parameterMap, List<FilePart> filePartList) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithFileParts(httpMethod, path, parameterMap, filePartList));
+    }
 
-        return result;
+    public T callMethodWithFileParts(String httpMethod, String path, Map<String, String> parameterMap, List<FilePart> filePartList, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithFileParts(httpMethod, path, parameterMap, filePartList), returnClass, parameterClass);
+    }
+
+    public CompletableFuture<String> callMethodWithFilePartsAsync(String httpMethod, String path, Map<String, String> parameterMap, List<FilePart> filePartList) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithFileParts(httpMethod, path, parameterMap, filePartList));
+    }
+
+    public CompletableFuture<T> callMethodWithFilePartsAsync(String httpMethod, String path, Map<String, String> parameterMap, List<FilePart> filePartList, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithFileParts(httpMethod, path, parameterMap, filePartList), returnClass, parameterClass);
     }
 
     @Override
@@ -662,4 +877,194 @@ public class NexledgerRPCHttpClient<T> implements HttpClient<T> {
         return this.callMethodWithMultipartFormData("DELETE", path, formParameterMap, fileList, returnClass, parameterClass);
     }
 
-}
+    @Override
+    public CompletableFuture<String> callMethodAsync(String httpMethod, String path) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequest(httpMethod, path));
+    }
+
+    @Override
+    public CompletableFuture<String> callMethodWithJsonAsync(String httpMethod, String path, Object pathParameterJsonObject) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithJson(httpMethod, path, pathParameterJsonObject));
+    }
+
+    @Override
+    public CompletableFuture<String> callMethodWithFormDataAsync(String httpMethod, String path, Map<String, String> pathParameterMap) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithFormData(httpMethod, path, pathParameterMap));
+    }
+
+    @Override
+    public CompletableFuture<String> callMethodWithMultipartFormDataAsync(String httpMethod, String path, Map<String, String> formParameterMap, List<File> fileList) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithMultipartFormData(httpMethod, path, formParameterMap, fileList));
+    }
+
+    @Override
+    public CompletableFuture<T> callMethodAsync(String httpMethod, String path, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequest(httpMethod, path), returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callMethodWithJsonAsync(String httpMethod, String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithJson(httpMethod, path, jsonObject), returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callMethodWithFormDataAsync(String httpMethod, String path, Map<String, String> formParameterMap, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithFormData(httpMethod, path, formParameterMap), returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callMethodWithMultipartFormDataAsync(String httpMethod, String path, Map<String, String> formParameterMap, List<File> fileList, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithMultipartFormData(httpMethod, path, formParameterMap, fileList), returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<String> callGetMethodAsync(String path) {
+        return this.callMethodAsync("GET", path);
+    }
+
+    @Override
+    public CompletableFuture<String> callGetMethodWithJsonAsync(String path, Object pathParameterJsonObject) {
+        return this.callMethodWithJsonAsync("GET", path, pathParameterJsonObject);
+    }
+
+    @Override
+    public CompletableFuture<String> callGetMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap) {
+        return this.callMethodWithFormDataAsync("GET", path, pathParameterMap);
+    }
+
+    @Override
+    public CompletableFuture<T> callGetMethodAsync(String path, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodAsync("GET", path, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callGetMethodWithJsonAsync(String path, Object pathParameterJsonObject, Class<T> returnClass, Class<?> ...parameterClass) {
+        return this.callMethodWithJsonAsync("GET", path, pathParameterJsonObject, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callGetMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap, Class<T> returnClass, Class<?> ...parameterClass) {
+        return this.callMethodWithFormDataAsync("GET", path, pathParameterMap, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<String> callPostMethodAsync(String path) {
+        return this.callMethodAsync("POST", path);
+    }
+
+    @Override
+    public CompletableFuture<String> callPostMethodWithJsonAsync(String path, Object pathParameterJsonObject) {
+        return this.callMethodWithJsonAsync("POST", path, pathParameterJsonObject);
+    }
+
+    @Override
+    public CompletableFuture<String> callPostMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap) {
+        return this.callMethodWithFormDataAsync("POST", path, pathParameterMap);
+    }
+
+    @Override
+    public CompletableFuture<String> callPostMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList) {
+        return this.callMethodWithMultipartFormDataAsync("POST", path, formParameterMap, fileList);
+    }
+
+    @Override
+    public CompletableFuture<T> callPostMethodAsync(String path, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodAsync("POST", path, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callPostMethodWithJsonAsync(String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithJsonAsync("POST", path, jsonObject, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callPostMethodWithFormDataAsync(String path, Map<String, String> formParameterMap, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithFormDataAsync("POST", path, formParameterMap, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callPostMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithMultipartFormDataAsync("POST", path, formParameterMap, fileList, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<String> callPutMethodAsync(String path) {
+        return this.callMethodAsync("PUT", path);
+    }
+
+    @Override
+    public CompletableFuture<String> callPutMethodWithJsonAsync(String path, Object pathParameterJsonObject) {
+        return this.callMethodWithJsonAsync("PUT", path, pathParameterJsonObject);
+    }
+
+    @Override
+    public CompletableFuture<String> callPutMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap) {
+        return this.callMethodWithFormDataAsync("PUT", path, pathParameterMap);
+    }
+
+    @Override
+    public CompletableFuture<String> callPutMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList) {
+        return this.callMethodWithMultipartFormDataAsync("PUT", path, formParameterMap, fileList);
+    }
+
+    @Override
+    public CompletableFuture<T> callPutMethodAsync(String path, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodAsync("PUT", path, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callPutMethodWithJsonAsync(String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithJsonAsync("PUT", path, jsonObject, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callPutMethodWithFormDataAsync(String path, Map<String, String> formParameterMap, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithFormDataAsync("PUT", path, formParameterMap, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callPutMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList, Class<T> returnClass, Class<?> ...parameterClass) {
+        return this.callMethodWithMultipartFormDataAsync("PUT", path, formParameterMap, fileList, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<String> callDeleteMethodAsync(String path) {
+        return this.callMethodAsync("DELETE", path);
+    }
+
+    @Override
+    public CompletableFuture<String> callDeleteMethodWithJsonAsync(String path, Object pathParameterJsonObject) {
+        return this.callMethodWithJsonAsync("DELETE", path, pathParameterJsonObject);
+    }
+
+    @Override
+    public CompletableFuture<String> callDeleteMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap) {
+        return this.callMethodWithFormDataAsync("DELETE", path, pathParameterMap);
+    }
+
+    @Override
+    public CompletableFuture<String> callDeleteMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList) {
+        return this.callMethodWithMultipartFormDataAsync("DELETE", path, formParameterMap, fileList);
+    }
+
+    @Override
+    public CompletableFuture<T> callDeleteMethodAsync(String path, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodAsync("DELETE", path, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callDeleteMethodWithJsonAsync(String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithJsonAsync("DELETE", path, jsonObject, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callDeleteMethodWithFormDataAsync(String path, Map<String, String> formParameterMap, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithFormDataAsync("DELETE", path, formParameterMap, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callDeleteMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList, Class<T> returnClass, Class<?> ...parameterClass) {
+        return this.callMethodWithMultipartFormDataAsync("DELETE", path, formParameterMap, fileList, returnClass, parameterClass);
+    }
+
+}
\ No newline at end of file
@@ -1,20 +1,60 @@
 package com.example.okhttp;
 
+import com.example.okhttp.cache.LruResponseCache;
+import com.example.okhttp.cache.ResponseCache;
+import com.example.okhttp.cache.ResponseCacheInterceptor;
+import com.example.okhttp.circuitbreaker.CircuitBreakerInterceptor;
+import com.example.okhttp.circuitbreaker.CircuitBreakerRegistry;
+import com.example.okhttp.coalesce.CoalescingInterceptor;
+import com.example.okhttp.compress.CompressionMetrics;
+import com.example.okhttp.compress.RequestCompressionInterceptor;
+import com.example.okhttp.download.DownloadResult;
+import com.example.okhttp.hedge.HedgingExecutor;
+import com.example.okhttp.http2.MultiplexingInterceptor;
+import com.example.okhttp.http2.MultiplexingMetrics;
+import com.example.okhttp.loadbalance.LoadBalancedEndPoint;
+import com.example.okhttp.loadbalance.LoadBalancingInterceptor;
+import com.example.okhttp.metrics.InMemoryMetricsRegistry;
+import com.example.okhttp.metrics.MetricsEventListener;
+import com.example.okhttp.metrics.MetricsRegistry;
+import com.example.okhttp.model.CacheOption;
+import com.example.okhttp.model.CircuitBreakerOption;
+import com.example.okhttp.model.CoalescingOption;
 import com.example.okhttp.model.ConnectionPoolOption;
+import com.example.okhttp.model.DispatcherOption;
+import com.example.okhttp.model.DownloadOption;
 import com.example.okhttp.model.EndPoint;
+import com.example.okhttp.model.HedgingOption;
+import com.example.okhttp.model.Http2Option;
+import com.example.okhttp.model.HttpVersion;
 import com.example.okhttp.model.Proxy;
+import com.example.okhttp.model.RequestBodyOption;
+import com.example.okhttp.model.RequestCompressionOption;
+import com.example.okhttp.model.RetryOption;
 import com.example.okhttp.model.Timeout;
+import com.example.okhttp.model.UploadOption;
+import com.example.okhttp.multipart.FilePart;
+import com.example.okhttp.retry.RetryInterceptor;
+import com.example.okhttp.retry.RetryMetrics;
+import com.example.okhttp.route.Route;
+import com.example.okhttp.route.RouteTemplate;
+import com.example.okhttp.upload.ChunkedUploader;
+import com.example.okhttp.upload.UploadResult;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import okhttp3.*;
 
 import java.io.File;
-import java.lang.reflect.Field;
+import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.URL;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
 
@@ -24,7 +64,7 @@ import java.util.concurrent.TimeUnit;
  * @author: shyoung.kim@samsung.com
  *
  */
-public class OkHttpClientUtil<T> implements HttpClient<T> {
+public class OkHttpClientUtil<T> implements HttpClient<T>, AsyncHttpClient<T>, AutoCloseable {
     public final static int DEFAULT_MAX_CONNECT_COUNT = ConnectionPoolOption.DEFAULT_MAX_CONNECTION_COUNT;
     public final static long DEFAULT_KEEP_ALIVE_DURATION = ConnectionPoolOption.DEFAULT_KEEP_ALIVE_DURATION;
     public final static int DEFAULT_READ_TIMEOUT = Timeout.DEFAULT_READ_TIMEOUT;
@@ -37,11 +77,31 @@ public class OkHttpClientUtil<T> implements HttpClient<T> {
     private OkHttpClient okHttpClient;
     private final Gson gson;
     private final Gson gsonPretty;
+    private Executor parseExecutor;
+    private boolean virtualThreadEnabled;
+    // Dispatcher executor created by build() (virtual threads or OkHttp's default), shut down by close()
+    private ExecutorService ownedExecutorService;
 
-    private final EndPoint endPoint;
+    private EndPoint endPoint;
     private Proxy proxy;
     private final Timeout timeout;
     private final ConnectionPoolOption connectionPoolOption;
+    private final DispatcherOption dispatcherOption;
+    private final RequestBodyOption requestBodyOption;
+    private RetryOption retryOption;
+    private RetryInterceptor retryInterceptor;
+    private HedgingExecutor hedgingExecutor;
+    private CircuitBreakerInterceptor circuitBreakerInterceptor;
+    private RequestCompressionOption requestCompressionOption;
+    private RequestCompressionInterceptor requestCompressionInterceptor;
+    private CacheOption cacheOption;
+    private ResponseCache responseCache;
+    private ResponseCacheInterceptor responseCacheInterceptor;
+    private CoalescingInterceptor coalescingInterceptor;
+    private Http2Option http2Option;
+    private MultiplexingInterceptor multiplexingInterceptor;
+    private MetricsRegistry metricsRegistry;
+    private RequestExecutor<T> requestExecutor;
 
     private OkHttpClientUtil() {
         this(new Gson());
@@ -54,6 +114,12 @@ public class OkHttpClientUtil<T> implements HttpClient<T> {
         this.proxy = null;
         this.timeout = new Timeout();
         this.connectionPoolOption = new ConnectionPoolOption();
+        this.dispatcherOption = new DispatcherOption();
+        this.requestBodyOption = new RequestBodyOption();
+        this.retryOption = new RetryOption();
+        this.metricsRegistry = new InMemoryMetricsRegistry();
+        this.parseExecutor = null;
+        this.virtualThreadEnabled = false;
     }
 
     public static Builder builder() {
@@ -90,6 +156,22 @@ public class OkHttpClientUtil<T> implements HttpClient<T> {
                                     this.okHttpClientUtil.timeout.getTimeUnit())
                     );
 
+            HttpVersion httpVersion = this.okHttpClientUtil.endPoint.getHttpVersion();
+            if (httpVersion != null) {
+                if (httpVersion == HttpVersion.H2_PRIOR_KNOWLEDGE && "https".equalsIgnoreCase(this.okHttpClientUtil.endPoint.getProtocol())) {
+                    throw new RuntimeException("H2_PRIOR_KNOWLEDGE requires a cleartext (http) EndPoint. Use HTTP_2 for https.");
+                }
+                okHttpClientBuilder.protocols(httpVersion.getProtocols());
+            }
+
+            okHttpClientBuilder.eventListenerFactory(new MetricsEventListener.Factory(this.okHttpClientUtil.metricsRegistry, this.okHttpClientUtil::canceled));
+
+            if (this.okHttpClientUtil.http2Option != null) {
+                okHttpClientBuilder.pingInterval(this.okHttpClientUtil.http2Option.getPingInterval(), this.okHttpClientUtil.http2Option.getTimeUnit());
+                this.okHttpClientUtil.multiplexingInterceptor = new MultiplexingInterceptor();
+                okHttpClientBuilder.addNetworkInterceptor(this.okHttpClientUtil.multiplexingInterceptor);
+            }
+
             if (this.okHttpClientUtil.proxy != null) {
                 okHttpClientBuilder.proxy(
                         new java.net.Proxy(
@@ -98,11 +180,119 @@ public class OkHttpClientUtil<T> implements HttpClient<T> {
                 );
             }
 
+            ExecutorService virtualThreadExecutor = null;
+            if (this.okHttpClientUtil.virtualThreadEnabled) {
+                virtualThreadExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+
+                if (this.okHttpClientUtil.parseExecutor == null) {
+                    this.okHttpClientUtil.parseExecutor = virtualThreadExecutor;
+                }
+            }
+
+            okHttpClientBuilder.dispatcher(
+                    Dispatchers.create(
+                            this.okHttpClientUtil.dispatcherOption,
+                            this.okHttpClientUtil.connectionPoolOption,
+                            virtualThreadExecutor)
+            );
+
+            if (this.okHttpClientUtil.parseExecutor == null) {
+                this.okHttpClientUtil.parseExecutor = ForkJoinPool.commonPool();
+            }
+
+            if (this.okHttpClientUtil.cacheOption != null) {
+                CacheOption cacheOption = this.okHttpClientUtil.cacheOption;
+                ResponseCache responseCache = this.okHttpClientUtil.responseCache != null
+                        ? this.okHttpClientUtil.responseCache
+                        : new LruResponseCache(cacheOption);
+
+                this.okHttpClientUtil.responseCacheInterceptor = new ResponseCacheInterceptor(responseCache, cacheOption);
+                okHttpClientBuilder.addInterceptor(this.okHttpClientUtil.responseCacheInterceptor);
+
+                if (cacheOption.getDiskCacheDirectory() != null) {
+                    okHttpClientBuilder.cache(new Cache(cacheOption.getDiskCacheDirectory(), cacheOption.getDiskCacheMaxSize()));
+                }
+            }
+
+            if (this.okHttpClientUtil.coalescingInterceptor != null) {
+                okHttpClientBuilder.addInterceptor(this.okHttpClientUtil.coalescingInterceptor);
+            }
+
+            this.okHttpClientUtil.retryInterceptor = new RetryInterceptor(
+                    this.okHttpClientUtil.connectionPoolOption.getRetryCount(),
+                    this.okHttpClientUtil.retryOption);
+            okHttpClientBuilder.addInterceptor(this.okHttpClientUtil.retryInterceptor);
+
+            if (this.okHttpClientUtil.endPoint instanceof LoadBalancedEndPoint) {
+                okHttpClientBuilder.addInterceptor(
+                        new LoadBalancingInterceptor((LoadBalancedEndPoint) this.okHttpClientUtil.endPoint));
+            }
+
+            if (this.okHttpClientUtil.circuitBreakerInterceptor != null) {
+                okHttpClientBuilder.addInterceptor(this.okHttpClientUtil.circuitBreakerInterceptor);
+            }
+
+            if (this.okHttpClientUtil.requestCompressionOption != null) {
+                this.okHttpClientUtil.requestCompressionInterceptor = new RequestCompressionInterceptor(
+                        this.okHttpClientUtil.requestCompressionOption, this.okHttpClientUtil.metricsRegistry);
+                okHttpClientBuilder.addInterceptor(this.okHttpClientUtil.requestCompressionInterceptor);
+            }
+
             this.okHttpClientUtil.okHttpClient = okHttpClientBuilder.build();
 
+            this.okHttpClientUtil.requestExecutor = new RequestExecutor<>(
+                    this.okHttpClientUtil.okHttpClient,
+                    this.okHttpClientUtil.endPoint,
+                    this.okHttpClientUtil.gson,
+                    this.okHttpClientUtil.requestBodyOption,
+                    this.okHttpClientUtil.parseExecutor,
+                    this.okHttpClientUtil.metricsRegistry);
+            this.okHttpClientUtil.requestExecutor.setHedgingExecutor(this.okHttpClientUtil.hedgingExecutor);
+            if (this.okHttpClientUtil.cacheOption != null && this.okHttpClientUtil.cacheOption.isCacheObjects()) {
+                this.okHttpClientUtil.requestExecutor.setObjectCache(this.okHttpClientUtil.getResponseCache());
+            }
+
+            if (virtualThreadExecutor != null) {
+                this.okHttpClientUtil.ownedExecutorService = virtualThreadExecutor;
+            } else if (this.okHttpClientUtil.dispatcherOption.getExecutorService() == null) {
+                this.okHttpClientUtil.ownedExecutorService = this.okHttpClientUtil.okHttpClient.dispatcher().executorService();
+            }
+
             return this.okHttpClientUtil;
         }
 
+        /**
+         * Replace the EndPoint (e.g. with a LoadBalancedEndPoint over several nodes).
+         */
+        public Builder setEndPoint(EndPoint value) {
+            this.okHttpClientUtil.endPoint = Objects.requireNonNull(value);
+            return this;
+        }
+
+        /**
+         * HTTP_1_1, HTTP_2 (ALPN over TLS, default) or H2_PRIOR_KNOWLEDGE (cleartext HTTP/2).
+         */
+        public Builder httpVersion(HttpVersion value) {
+            this.okHttpClientUtil.endPoint.setHttpVersion(value);
+            return this;
+        }
+
+        /**
+         * Replace the default in-memory registry of the request lifecycle metrics.
+         */
+        public Builder setMetricsRegistry(MetricsRegistry value) {
+            this.okHttpClientUtil.metricsRegistry = Objects.requireNonNull(value);
+            return this;
+        }
+
+        /**
+         * PING interval of HTTP/2 connections; also enables the multiplexing metrics.
+         */
+        public Builder setHttp2Option(Http2Option value) {
+            this.okHttpClientUtil.http2Option = Objects.requireNonNull(value);
+            return this;
+        }
+
         public Builder protocol(String value) {
             this.okHttpClientUtil.endPoint.setProtocol(value);
             return this;
@@ -162,312 +352,375 @@ public class OkHttpClientUtil<T> implements HttpClient<T> {
             this.okHttpClientUtil.connectionPoolOption.setRetryCount(value);
             return this;
         }
-    }
 
-    private String getRestApiUrl(String path) {
-        try {
-            String url = this.endPoint.getUrl() + path;
-            return url;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        /**
+         * Backoff, idempotency and retry budget option (the number of retries is setRetryCount).
+         */
+        public Builder setRetryOption(RetryOption value) {
+            this.okHttpClientUtil.retryOption = Objects.requireNonNull(value);
+            return this;
         }
-    }
 
-    private String getRestApiUrl(String path, Object object) {
-        try {
-            HttpUrl.Builder httpUrlBuilder
-                    = Objects.requireNonNull(
-                    HttpUrl.parse(this.getRestApiUrl(path))
-            ).newBuilder();
+        /**
+         * Max concurrent async calls (default: maxConnectionCount).
+         */
+        public Builder setMaxRequests(Integer value) {
+            this.okHttpClientUtil.dispatcherOption.setMaxRequests(value);
+            return this;
+        }
 
-            for (Field field : object.getClass().getDeclaredFields()) {
-                field.setAccessible(true);
-                if (field.get(object) != null) {
-                    httpUrlBuilder.addQueryParameter(field.getName(), field.get(object).toString());
-                }
-                field.setAccessible(false);
-            }
+        /**
+         * Max concurrent async calls per host (default: maxConnectionCount, capped at maxRequests).
+         */
+        public Builder setMaxRequestsPerHost(Integer value) {
+            this.okHttpClientUtil.dispatcherOption.setMaxRequestsPerHost(value);
+            return this;
+        }
 
-            URL url = httpUrlBuilder.build().url();
-            return url.toString();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        /**
+         * Executor running OkHttp's Dispatcher (default: OkHttp's cached thread pool, or virtual threads when enabled).
+         */
+        public Builder setDispatcherExecutor(ExecutorService value) {
+            this.okHttpClientUtil.dispatcherOption.setExecutorService(value);
+            return this;
         }
-    }
 
-    private String getRestApiUrl(String path, Map<String, String> queryParams) {
-        try {
-            HttpUrl.Builder httpUrlBuilder
-                    = Objects.requireNonNull(
-                    HttpUrl.parse(this.getRestApiUrl(path))
-            ).newBuilder();
+        /**
+         * JSON request bodies may be written only once (no OkHttp retry / redirect replay).
+         */
+        public Builder setOneShotRequestBody(Boolean value) {
+            this.okHttpClientUtil.requestBodyOption.setOneShot(value);
+            return this;
+        }
 
-            queryParams.forEach(httpUrlBuilder::addQueryParameter);
+        /**
+         * Char buffer size between Gson and the socket when streaming JSON request bodies.
+         */
+        public Builder setRequestBodyBufferSize(Integer value) {
+            this.okHttpClientUtil.requestBodyOption.setBufferSize(value);
+            return this;
+        }
 
-            URL url = httpUrlBuilder.build().url();
-            return url.toString();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        /**
+         * Cache GET responses in a heap LRU / TTL tier (and optionally on disk with HTTP cache semantics).
+         */
+        public Builder setCacheOption(CacheOption value) {
+            this.okHttpClientUtil.cacheOption = value;
+            return this;
         }
-    }
 
-    private T parseGson(String jsonString, Class<T> returnClass, Class<?> ... parameterClass) {
-        T result;
-        try {
-            if (parameterClass.length > 0) {
-                result = gson.fromJson(jsonString, TypeToken.getParameterized(returnClass, parameterClass).getType());
-            }
-            else {
-                result = gson.fromJson(jsonString, returnClass);
-            }
-        } catch (Exception e){
-            throw new RuntimeException(e);
+        /**
+         * Custom heap cache implementation (default: LruResponseCache). Requires setCacheOption.
+         */
+        public Builder setResponseCache(ResponseCache value) {
+            this.okHttpClientUtil.responseCache = value;
+            return this;
+        }
+
+        /**
+         * Let identical concurrent GET requests share one in-flight network call.
+         */
+        public Builder setCoalescingOption(CoalescingOption value) {
+            this.okHttpClientUtil.coalescingInterceptor = new CoalescingInterceptor(value);
+            return this;
         }
 
-        return result;
+        /**
+         * Fail fast per endpoint while its failure rate or slow call rate is above the threshold.
+         */
+        public Builder setCircuitBreakerOption(CircuitBreakerOption value) {
+            this.okHttpClientUtil.circuitBreakerInterceptor = new CircuitBreakerInterceptor(new CircuitBreakerRegistry(value));
+            return this;
+        }
+
+        /**
+         * Gzip / deflate request bodies of at least minSize bytes while they are sent (Content-Encoding).
+         */
+        public Builder setRequestCompressionOption(RequestCompressionOption value) {
+            this.okHttpClientUtil.requestCompressionOption = Objects.requireNonNull(value);
+            return this;
+        }
+
+        /**
+         * Hedge GET calls: send a duplicate request when the first one is slower than the configured latency percentile.
+         */
+        public Builder setHedgingOption(HedgingOption value) {
+            this.okHttpClientUtil.hedgingExecutor = new HedgingExecutor(value);
+            return this;
+        }
+
+        /**
+         * Executor on which the async API parses response bodies with Gson (default: ForkJoinPool.commonPool()).
+         */
+        public Builder setParseExecutor(Executor value) {
+            this.okHttpClientUtil.parseExecutor = Objects.requireNonNull(value);
+            return this;
+        }
+
+        /**
+         * Run OkHttp's Dispatcher (and the Gson parse stage, unless a parse executor is set) on a virtual-thread-per-task executor.
+         * Blocking calls are expected to be issued from virtual threads as well. Requires Java 21 at runtime.
+         */
+        public Builder setVirtualThreadEnabled(Boolean value) {
+            this.okHttpClientUtil.virtualThreadEnabled = value;
+            return this;
+        }
     }
 
-    // TODO: Handle Response. (if not successful response)
-    // response.isSuccessful();
-    // response.isRedirect();
+    /**
+     * Release what the client created: its Dispatcher executor (virtual threads or OkHttp's default; an executor
+     * passed in DispatcherOption or setParseExecutor is left running), pooled connections and the disk cache.
+     * Calls already running complete; the client must not be used afterwards.
+     */
     @Override
-    public String callMethod(String httpMethod, String path) {
-        String result;
-        try {
-            // Request.Builder
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(this.getRestApiUrl(path));
-
-            // HttpMethod
-            switch(httpMethod.toUpperCase()) {
-                case "GET":
-                    requestBuilder.get();
-                    break;
-                case "POST":
-                case "PUT":
-                case "DELETE":
-                    // RequestBody Builder
-                    requestBuilder.method(
-                            httpMethod,
-                            RequestBody.create(new byte[0], DEFAULT_MEDIA_TYPE)
-                    );
-                    break;
-                default:
-                    throw new RuntimeException("Http Method Not Supported. " + httpMethod);
+    public void close() {
+        if (this.ownedExecutorService != null) {
+            this.ownedExecutorService.shutdown();
+        }
+        this.okHttpClient.connectionPool().evictAll();
+
+        Cache cache = this.okHttpClient.cache();
+        if (cache != null) {
+            try {
+                cache.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
             }
+        }
+    }
 
-            // Request
-            Request request = requestBuilder.build();
+    /**
+     * Heap response cache and its hit / miss counters (null when the cache is disabled).
+     */
+    public ResponseCache getResponseCache() {
+        return this.responseCacheInterceptor != null ? this.responseCacheInterceptor.getResponseCache() : null;
+    }
 
-            // Response
-            Response response = okHttpClient.newCall(request).execute();
-            result = Objects.requireNonNull(response.body()).string();
+    /**
+     * OkHttp disk cache (null when disabled). hitCount(), networkCount() and requestCount() report its hit rate.
+     */
+    public Cache getDiskCache() {
+        return this.okHttpClient.cache();
+    }
 
-            // Response Status Check
-            if (!response.isSuccessful() && !response.isRedirect()) {
-                throw new RuntimeException("Response is not successful. " + result);
-            }
-        } catch (Exception e){
-            throw new RuntimeException(e);
-        }
+    /**
+     * Request lifecycle metrics (per-phase latencies, bytes, connection reuse) tagged by endpoint, method and path template.
+     */
+    public MetricsRegistry getMetricsRegistry() {
+        return this.metricsRegistry;
+    }
 
-        return result;
+    /**
+     * HTTP/2 multiplexing depth (streams per connection) and HTTP/1.1 request counts (null when no Http2Option is set).
+     */
+    public MultiplexingMetrics getMultiplexingMetrics() {
+        return this.multiplexingInterceptor != null ? this.multiplexingInterceptor.getMetrics() : null;
     }
 
-    @Override
-    public String callMethodWithJson(String httpMethod, String path, Object jsonObject) {
-        String result;
-        try {
-            // Request.Builder
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(this.getRestApiUrl(path));
-
-            // HttpMethod
-            switch(httpMethod.toUpperCase()) {
-                case "GET":
-                    requestBuilder
-                            .url(this.getRestApiUrl(path, jsonObject))
-                            .get();
-                    break;
-                case "POST":
-                case "PUT":
-                case "DELETE":
-                    // RequestBody Builder
-                    RequestBody requestBody = RequestBody.create(
-                            gson.toJson(jsonObject, jsonObject.getClass()),
-                            MediaType.parse("application/json")
-                    );
+    /**
+     * Single-flight counters (null when coalescing is disabled).
+     */
+    public CoalescingInterceptor getCoalescingInterceptor() {
+        return this.coalescingInterceptor;
+    }
 
-                    requestBuilder.method(httpMethod, requestBody);
-                    break;
-                default:
-                    throw new RuntimeException("Http Method Not Supported. " + httpMethod);
-            }
+    /**
+     * Per-endpoint circuit breakers (null when the circuit breaker is disabled).
+     */
+    public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+        return this.circuitBreakerInterceptor != null ? this.circuitBreakerInterceptor.getCircuitBreakerRegistry() : null;
+    }
 
-            // Request
-            Request request = requestBuilder.build();
+    /**
+     * Request compression ratio and CPU time (null when request compression is disabled).
+     */
+    public CompressionMetrics getCompressionMetrics() {
+        return this.requestCompressionInterceptor != null ? this.requestCompressionInterceptor.getCompressionMetrics() : null;
+    }
 
-            // Response
-            Response response = okHttpClient.newCall(request).execute();
-            result = Objects.requireNonNull(response.body()).string();
+    /**
+     * Hedging counters and current hedge delay (null when hedging is disabled).
+     */
+    public HedgingExecutor getHedgingExecutor() {
+        return this.hedgingExecutor;
+    }
 
-            // Response Status Check
-            if (!response.isSuccessful() && !response.isRedirect()) {
-                throw new RuntimeException("Response is not successful. " + result);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * Retry counters and backoff time (live view).
+     */
+    public RetryMetrics getRetryMetrics() {
+        return this.retryInterceptor.getRetryMetrics();
+    }
 
-        return result;
+    /**
+     * Number of async calls currently running (live view of the Dispatcher).
+     */
+    public int getRunningCallsCount() {
+        return this.okHttpClient.dispatcher().runningCallsCount();
     }
 
-    @Override
-    public String callMethodWithFormData(String httpMethod, String path, Map<String, String> parameterMap) {
-        String result;
-        try {
-            // Request.Builder
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(this.getRestApiUrl(path));
-
-            // HttpMethod
-            switch(httpMethod.toUpperCase()) {
-                case "GET":
-                    requestBuilder.url(this.getRestApiUrl(path, parameterMap))
-                            .get();
-                    break;
-                case "POST":
-                case "PUT":
-                case "DELETE":
-                    // FormBody.Builder (RequestBodyBuilder)
-                    FormBody.Builder formBodyBuilder = new FormBody.Builder();
-                    parameterMap.forEach(formBodyBuilder::add);
-
-                    RequestBody requestBody = formBodyBuilder.build();
-                    requestBuilder.method(httpMethod, requestBody);
-                    break;
-                default:
-                    throw new RuntimeException("Http Method Not Supported. " + httpMethod);
-            }
+    /**
+     * Number of async calls waiting for a Dispatcher slot (live view of the Dispatcher).
+     */
+    public int getQueuedCallsCount() {
+        return this.okHttpClient.dispatcher().queuedCallsCount();
+    }
 
-            // Request
-            Request request = requestBuilder.build();
+    /**
+     * Route template parsed once against the endpoint url and cached per template.
+     *
+     * @param template path template, e.g. /block/{height}/tx/{id}
+     */
+    public RouteTemplate route(String template) {
+        return this.requestExecutor.route(template);
+    }
 
-            // Response
-            Response response = okHttpClient.newCall(request).execute();
-            result = Objects.requireNonNull(response.body()).string();
+    public String callRoute(String httpMethod, Route route) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequest(httpMethod, route));
+    }
 
-            // Response Status Check
-            if (!response.isSuccessful() && !response.isRedirect()) {
-                throw new RuntimeException("Response is not successful. " + result);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    public String callRouteWithJson(String httpMethod, Route route, Object jsonObject) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithJson(httpMethod, route, jsonObject));
+    }
 
-        return result;
+    public T callRoute(String httpMethod, Route route, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequest(httpMethod, route), returnClass, parameterClass);
     }
 
-    @Override
-    public String callMethodWithMultipartFormData(String httpMethod, String path, Map<String, String> parameterMap, List<File> fileList) {
-        String result;
-        try {
-            // Request.Builder
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(this.getRestApiUrl(path));
-
-            // HttpMethod
-            // RequestBodyBuilder
-            switch (httpMethod.toUpperCase()) {
-                case "GET" -> {
-                    requestBuilder.url(this.getRestApiUrl(path, parameterMap))
-                            .get();
-                }
-                case "POST", "PUT", "DELETE" -> {
-                    MultipartBody.Builder requestBodyBuilder = new MultipartBody.Builder()
-                            .setType(MultipartBody.FORM);
-                    for (File file : fileList) {
-                        requestBodyBuilder.addFormDataPart(
-                                "file",
-                                file.getName(),
-                                RequestBody.create(file, MediaType.parse("text/plain"))
-                        );
-                    }
-                    for (String key : parameterMap.keySet()) {
-                        requestBodyBuilder.addFormDataPart(key, parameterMap.get(key));
-                    }
-                    RequestBody requestBody = requestBodyBuilder.build();
-                    requestBuilder.method(httpMethod, requestBody);
-                }
-                default -> throw new RuntimeException("Http Method Not Supported. " + httpMethod);
-            }
+    public T callRouteWithJson(String httpMethod, Route route, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithJson(httpMethod, route, jsonObject), returnClass, parameterClass);
+    }
 
-            // Request
-            Request request = requestBuilder.build();
+    public CompletableFuture<String> callRouteAsync(String httpMethod, Route route) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequest(httpMethod, route));
+    }
 
-            // Response
-            Response response = okHttpClient.newCall(request).execute();
-            result = Objects.requireNonNull(response.body()).string();
+    public CompletableFuture<String> callRouteWithJsonAsync(String httpMethod, Route route, Object jsonObject) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithJson(httpMethod, route, jsonObject));
+    }
 
-            // Response Status Check
-            if (!response.isSuccessful() && !response.isRedirect()) {
-                throw new RuntimeException("Response is not successful. " + result);
-            }
-        } catch (Exception e){
-            throw new RuntimeException(e);
-        }
+    public CompletableFuture<T> callRouteAsync(String httpMethod, Route route, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequest(httpMethod, route), returnClass, parameterClass);
+    }
 
-        return result;
+    public CompletableFuture<T> callRouteWithJsonAsync(String httpMethod, Route route, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithJson(httpMethod, route, jsonObject), returnClass, parameterClass);
     }
 
-    public T callMethod(String httpMethod, String path, Class<T> returnClass, Class<?> ... parameterClass) {
-        T result;
-        try {
-            String responseBodyString = this.callMethod(httpMethod, path);
+    public DownloadResult download(String path, Path target) {
+        return this.download(path, target, new DownloadOption());
+    }
 
-            result = this.parseGson(responseBodyString, returnClass, parameterClass);
-        } catch (Exception e){
-            throw new RuntimeException(e);
-        }
+    /**
+     * Stream the response body into the target file; heap use does not depend on the file size.
+     * With downloadOption.segmentCount > 1 byte ranges are fetched concurrently if the server accepts ranges.
+     *
+     * @param path path
+     * @param target target file (replaced atomically with downloadOption.atomic)
+     * @param downloadOption transfer size, checksum, progress
+     */
+    public DownloadResult download(String path, Path target, DownloadOption downloadOption) {
+        return this.requestExecutor.download(path, target, downloadOption);
+    }
 
-        return result;
+    public DownloadResult download(String path, WritableByteChannel channel) {
+        return this.download(path, channel, new DownloadOption());
     }
 
-    public T callMethodWithJson(String httpMethod, String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
-        T result;
-        try {
-            String responseBodyString = this.callMethodWithJson(httpMethod, path, jsonObject);
-            result = this.parseGson(responseBodyString, returnClass, parameterClass);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * Stream the response body into the channel; the channel is not closed.
+     *
+     * @param path path
+     * @param channel target channel
+     * @param downloadOption transfer size, checksum, progress
+     */
+    public DownloadResult download(String path, WritableByteChannel channel, DownloadOption downloadOption) {
+        return this.requestExecutor.download(path, channel, downloadOption);
+    }
 
-        return result;
+    public UploadResult upload(String path, File file) {
+        return this.upload(path, file, new UploadOption());
     }
 
-    public T callMethodWithFormData(String httpMethod, String path, Map<String, String> parameterMap, Class<T> returnClass, Class<?> ...parameterClass) {
-        T result;
-        try {
-            String responseBodyString = this.callMethodWithFormData(httpMethod, path, parameterMap);
-            result = this.parseGson(responseBodyString, returnClass, parameterClass);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+    /**
+     * Upload the file in parts with bounded parallelism (see {@link ChunkedUploader}).
+     * Progress is kept in a state file, so calling it again after a failure only uploads the missing parts.
+     *
+     * @param path path of the part requests
+     * @param file file
+     * @param uploadOption part size, parallelism, retries, completion path
+     */
+    public UploadResult upload(String path, File file, UploadOption uploadOption) {
+        return this.requestExecutor.upload(path, file, uploadOption);
+    }
+
+    // EventListener.canceled: wakes up a call waiting for a coalesced response
+    private void canceled(Call call) {
+        CoalescingInterceptor coalescingInterceptor = this.coalescingInterceptor;
+        if (coalescingInterceptor != null) {
+            coalescingInterceptor.canceled(call);
         }
+    }
+
+    @Override
+    public String callMethod(String httpMethod, String path) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequest(httpMethod, path));
+    }
 
-        return result;
+    @Override
+    public String callMethodWithJson(String httpMethod, String path, Object jsonObject) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithJson(httpMethod, path, jsonObject));
+    }
+
+    @Override
+    public String callMethodWithFormData(String httpMethod, String path, Map<String, String> parameterMap) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithFormData(httpMethod, path, parameterMap));
+    }
+
+    @Override
+    public String callMethodWithMultipartFormData(String httpMethod, String path, Map<String, String> parameterMap, List<File> fileList) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithMultipartFormData(httpMethod, path, parameterMap, fileList));
+    }
+
+    public T callMethod(String httpMethod, String path, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequest(httpMethod, path), returnClass, parameterClass);
+    }
+
+    public T callMethodWithJson(String httpMethod, String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithJson(httpMethod, path, jsonObject), returnClass, parameterClass);
+    }
+
+    public T callMethodWithFormData(String httpMethod, String path, Map<String, String> parameterMap, Class<T> returnClass, Class<?> ...parameterClass) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithFormData(httpMethod, path, parameterMap), returnClass, parameterClass);
     }
 
     @Override
     public T callMethodWithMultipartFormData(String httpMethod, String path, Map<String, String> parameterMap, List<File> fileList, Class<T> returnClass, Class<?> ...parameterClass) {
-        T result;
-        try {
-            String responseBodyString = this.callMethodWithMultipartFormData(httpMethod, path, parameterMap, fileList);
-            result = this.parseGson(responseBodyString, returnClass, parameterClass);
-        } catch (Exception e){
-            throw new RuntimeException(e);
-        }
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithMultipartFormData(httpMethod, path, parameterMap, fileList), returnClass, parameterClass);
+    }
 
-        return result;
+    /**
+     * Multipart form data with per-part name, content type, source (file, memory-mapped file, memory) and compression.
+     *
+     * @param httpMethod http method
+     * @param path path
+     * @param parameterMap form fields
+     * @param filePartList file parts
+     */
+    public String callMethodWithFileParts(String httpMethod, String path, Map<String, String> parameterMap, List<FilePart> filePartList) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithFileParts(httpMethod, path, parameterMap, filePartList));
+    }
+
+    public T callMethodWithFileParts(String httpMethod, String path, Map<String, String> parameterMap, List<FilePart> filePartList, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.call(() -> this.requestExecutor.buildRequestWithFileParts(httpMethod, path, parameterMap, filePartList), returnClass, parameterClass);
+    }
+
+    public CompletableFuture<String> callMethodWithFilePartsAsync(String httpMethod, String path, Map<String, String> parameterMap, List<FilePart> filePartList) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithFileParts(httpMethod, path, parameterMap, filePartList));
+    }
+
+    public CompletableFuture<T> callMethodWithFilePartsAsync(String httpMethod, String path, Map<String, String> parameterMap, List<FilePart> filePartList, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithFileParts(httpMethod, path, parameterMap, filePartList), returnClass, parameterClass);
     }
 
     @Override
@@ -620,4 +873,194 @@ public class OkHttpClientUtil<T> implements HttpClient<T> {
         return this.callMethodWithMultipartFormData("DELETE", path, formParameterMap, fileList, returnClass, parameterClass);
     }
 
-}
+    @Override
+    public CompletableFuture<String> callMethodAsync(String httpMethod, String path) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequest(httpMethod, path));
+    }
+
+    @Override
+    public CompletableFuture<String> callMethodWithJsonAsync(String httpMethod, String path, Object pathParameterJsonObject) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithJson(httpMethod, path, pathParameterJsonObject));
+    }
+
+    @Override
+    public CompletableFuture<String> callMethodWithFormDataAsync(String httpMethod, String path, Map<String, String> pathParameterMap) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithFormData(httpMethod, path, pathParameterMap));
+    }
+
+    @Override
+    public CompletableFuture<String> callMethodWithMultipartFormDataAsync(String httpMethod, String path, Map<String, String> formParameterMap, List<File> fileList) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithMultipartFormData(httpMethod, path, formParameterMap, fileList));
+    }
+
+    @Override
+    public CompletableFuture<T> callMethodAsync(String httpMethod, String path, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequest(httpMethod, path), returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callMethodWithJsonAsync(String httpMethod, String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithJson(httpMethod, path, jsonObject), returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callMethodWithFormDataAsync(String httpMethod, String path, Map<String, String> formParameterMap, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithFormData(httpMethod, path, formParameterMap), returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callMethodWithMultipartFormDataAsync(String httpMethod, String path, Map<String, String> formParameterMap, List<File> fileList, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.requestExecutor.callAsync(() -> this.requestExecutor.buildRequestWithMultipartFormData(httpMethod, path, formParameterMap, fileList), returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<String> callGetMethodAsync(String path) {
+        return this.callMethodAsync("GET", path);
+    }
+
+    @Override
+    public CompletableFuture<String> callGetMethodWithJsonAsync(String path, Object pathParameterJsonObject) {
+        return this.callMethodWithJsonAsync("GET", path, pathParameterJsonObject);
+    }
+
+    @Override
+    public CompletableFuture<String> callGetMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap) {
+        return this.callMethodWithFormDataAsync("GET", path, pathParameterMap);
+    }
+
+    @Override
+    public CompletableFuture<T> callGetMethodAsync(String path, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodAsync("GET", path, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callGetMethodWithJsonAsync(String path, Object pathParameterJsonObject, Class<T> returnClass, Class<?> ...parameterClass) {
+        return this.callMethodWithJsonAsync("GET", path, pathParameterJsonObject, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callGetMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap, Class<T> returnClass, Class<?> ...parameterClass) {
+        return this.callMethodWithFormDataAsync("GET", path, pathParameterMap, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<String> callPostMethodAsync(String path) {
+        return this.callMethodAsync("POST", path);
+    }
+
+    @Override
+    public CompletableFuture<String> callPostMethodWithJsonAsync(String path, Object pathParameterJsonObject) {
+        return this.callMethodWithJsonAsync("POST", path, pathParameterJsonObject);
+    }
+
+    @Override
+    public CompletableFuture<String> callPostMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap) {
+        return this.callMethodWithFormDataAsync("POST", path, pathParameterMap);
+    }
+
+    @Override
+    public CompletableFuture<String> callPostMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList) {
+        return this.callMethodWithMultipartFormDataAsync("POST", path, formParameterMap, fileList);
+    }
+
+    @Override
+    public CompletableFuture<T> callPostMethodAsync(String path, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodAsync("POST", path, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callPostMethodWithJsonAsync(String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithJsonAsync("POST", path, jsonObject, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callPostMethodWithFormDataAsync(String path, Map<String, String> formParameterMap, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithFormDataAsync("POST", path, formParameterMap, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callPostMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithMultipartFormDataAsync("POST", path, formParameterMap, fileList, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<String> callPutMethodAsync(String path) {
+        return this.callMethodAsync("PUT", path);
+    }
+
+    @Override
+    public CompletableFuture<String> callPutMethodWithJsonAsync(String path, Object pathParameterJsonObject) {
+        return this.callMethodWithJsonAsync("PUT", path, pathParameterJsonObject);
+    }
+
+    @Override
+    public CompletableFuture<String> callPutMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap) {
+        return this.callMethodWithFormDataAsync("PUT", path, pathParameterMap);
+    }
+
+    @Override
+    public CompletableFuture<String> callPutMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList) {
+        return this.callMethodWithMultipartFormDataAsync("PUT", path, formParameterMap, fileList);
+    }
+
+    @Override
+    public CompletableFuture<T> callPutMethodAsync(String path, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodAsync("PUT", path, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callPutMethodWithJsonAsync(String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithJsonAsync("PUT", path, jsonObject, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callPutMethodWithFormDataAsync(String path, Map<String, String> formParameterMap, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithFormDataAsync("PUT", path, formParameterMap, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callPutMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList, Class<T> returnClass, Class<?> ...parameterClass) {
+        return this.callMethodWithMultipartFormDataAsync("PUT", path, formParameterMap, fileList, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<String> callDeleteMethodAsync(String path) {
+        return this.callMethodAsync("DELETE", path);
+    }
+
+    @Override
+    public CompletableFuture<String> callDeleteMethodWithJsonAsync(String path, Object pathParameterJsonObject) {
+        return this.callMethodWithJsonAsync("DELETE", path, pathParameterJsonObject);
+    }
+
+    @Override
+    public CompletableFuture<String> callDeleteMethodWithFormDataAsync(String path, Map<String, String> pathParameterMap) {
+        return this.callMethodWithFormDataAsync("DELETE", path, pathParameterMap);
+    }
+
+    @Override
+    public CompletableFuture<String> callDeleteMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList) {
+        return this.callMethodWithMultipartFormDataAsync("DELETE", path, formParameterMap, fileList);
+    }
+
+    @Override
+    public CompletableFuture<T> callDeleteMethodAsync(String path, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodAsync("DELETE", path, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callDeleteMethodWithJsonAsync(String path, Object jsonObject, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithJsonAsync("DELETE", path, jsonObject, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callDeleteMethodWithFormDataAsync(String path, Map<String, String> formParameterMap, Class<T> returnClass, Class<?> ... parameterClass) {
+        return this.callMethodWithFormDataAsync("DELETE", path, formParameterMap, returnClass, parameterClass);
+    }
+
+    @Override
+    public CompletableFuture<T> callDeleteMethodWithMultipartFormDataAsync(String path, Map<String, String> formParameterMap, List<File> fileList, Class<T> returnClass, Class<?> ...parameterClass) {
+        return this.callMethodWithMultipartFormDataAsync("DELETE", path, formParameterMap, fileList, returnClass, parameterClass);
+    }
+
+}
\ No newline at end of file
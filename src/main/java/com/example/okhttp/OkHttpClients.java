@@ -0,0 +1,42 @@
+package com.example.okhttp;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+
+import java.util.List;
+
+/**
+ * Helpers to reconfigure an already built OkHttpClient.
+ * {@link OkHttpClient#newBuilder()} shares the connection pool and dispatcher, so this is cheap.
+ */
+final class OkHttpClients {
+    private OkHttpClients() {
+    }
+
+    /**
+     * Replace an application interceptor in place (keeps the interceptor order), or append it if absent.
+     */
+    static OkHttpClient replaceInterceptor(OkHttpClient okHttpClient, Interceptor oldInterceptor, Interceptor newInterceptor) {
+        return replaceInterceptor(okHttpClient, oldInterceptor, newInterceptor, -1);
+    }
+
+    /**
+     * Replace an application interceptor in place (keeps the interceptor order), or insert it at indexIfAbsent
+     * (-1: append) if absent.
+     */
+    static OkHttpClient replaceInterceptor(OkHttpClient okHttpClient, Interceptor oldInterceptor, Interceptor newInterceptor, int indexIfAbsent) {
+        OkHttpClient.Builder builder = okHttpClient.newBuilder();
+        List<Interceptor> interceptors = builder.interceptors();
+
+        int index = interceptors.indexOf(oldInterceptor);
+        if (index >= 0) {
+            interceptors.set(index, newInterceptor);
+        } else if (indexIfAbsent < 0) {
+            interceptors.add(newInterceptor);
+        } else {
+            interceptors.add(indexIfAbsent, newInterceptor);
+        }
+
+        return builder.build();
+    }
+}
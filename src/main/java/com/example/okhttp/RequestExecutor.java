@@ -0,0 +1,500 @@
+package com.example.okhttp;
+
+import com.example.okhttp.cache.CacheKeys;
+import com.example.okhttp.cache.ResponseCache;
+import com.example.okhttp.download.DownloadResult;
+import com.example.okhttp.download.Downloads;
+import com.example.okhttp.download.RangedDownloader;
+import com.example.okhttp.hedge.HedgeAttempt;
+import com.example.okhttp.hedge.HedgingExecutor;
+import com.example.okhttp.metrics.MetricNames;
+import com.example.okhttp.metrics.MetricTags;
+import com.example.okhttp.metrics.MetricsRegistry;
+import com.example.okhttp.metrics.PathTemplate;
+import com.example.okhttp.model.DownloadOption;
+import com.example.okhttp.model.EndPoint;
+import com.example.okhttp.model.RequestBodyOption;
+import com.example.okhttp.model.UploadOption;
+import com.example.okhttp.multipart.FilePart;
+import com.example.okhttp.query.QueryParameterBinder;
+import com.example.okhttp.route.Route;
+import com.example.okhttp.route.RouteTemplate;
+import com.example.okhttp.upload.ChunkedUploader;
+import com.example.okhttp.upload.UploadResult;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import okhttp3.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Request building and execution shared by {@link OkHttpClientUtil} and {@link NexledgerRPCHttpClient}:
+ * blocking, async and typed calls, hedging, the deserialized object cache, routes, downloads and uploads.
+ * The client owns the configuration and hands over the OkHttpClient and options it replaces.
+ */
+final class RequestExecutor<T> {
+    private static final MediaType DEFAULT_MEDIA_TYPE = MediaType.parse("application/json");
+
+    private final EndPoint endPoint;
+    private final Gson gson;
+    private final Map<String, RouteTemplate> routeTemplates = new ConcurrentHashMap<>();
+    private OkHttpClient okHttpClient;
+    private RequestBodyOption requestBodyOption;
+    private Executor parseExecutor;
+    private MetricsRegistry metricsRegistry;
+    private HedgingExecutor hedgingExecutor;
+    // heap cache of deserialized GET responses (null: disabled)
+    private ResponseCache objectCache;
+
+    RequestExecutor(OkHttpClient okHttpClient, EndPoint endPoint, Gson gson, RequestBodyOption requestBodyOption,
+                    Executor parseExecutor, MetricsRegistry metricsRegistry) {
+        this.okHttpClient = okHttpClient;
+        this.endPoint = endPoint;
+        this.gson = gson;
+        this.requestBodyOption = requestBodyOption;
+        this.parseExecutor = parseExecutor;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    void setOkHttpClient(OkHttpClient okHttpClient) {
+        this.okHttpClient = okHttpClient;
+    }
+
+    void setRequestBodyOption(RequestBodyOption requestBodyOption) {
+        this.requestBodyOption = requestBodyOption;
+    }
+
+    void setParseExecutor(Executor parseExecutor) {
+        this.parseExecutor = parseExecutor;
+    }
+
+    void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    void setHedgingExecutor(HedgingExecutor hedgingExecutor) {
+        this.hedgingExecutor = hedgingExecutor;
+    }
+
+    void setObjectCache(ResponseCache objectCache) {
+        this.objectCache = objectCache;
+    }
+
+    /**
+     * Route template parsed once against the endpoint url and cached per template.
+     */
+    RouteTemplate route(String template) {
+        return this.routeTemplates.computeIfAbsent(template,
+                key -> RouteTemplate.compile(HttpUrl.get(this.endPoint.getUrl()), key));
+    }
+
+    String call(Supplier<Request> requestSupplier) {
+        String result;
+        try {
+            result = this.execute(requestSupplier.get());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        return result;
+    }
+
+    T call(Supplier<Request> requestSupplier, Class<T> returnClass, Class<?> ... parameterClass) {
+        T result;
+        try {
+            result = this.execute(requestSupplier.get(), returnClass, parameterClass);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        return result;
+    }
+
+    CompletableFuture<String> callAsync(Supplier<Request> requestSupplier) {
+        return this.executeAsync(requestSupplier, ResponseBody::string, CallFutures.DIRECT_EXECUTOR);
+    }
+
+    CompletableFuture<T> callAsync(Supplier<Request> requestSupplier, Class<T> returnClass, Class<?> ... parameterClass) {
+        Request request;
+        try {
+            request = requestSupplier.get();
+        } catch (Exception e) {
+            return CallFutures.failed(e);
+        }
+
+        // Deserialized Object Cache
+        String objectCacheKey = this.getObjectCacheKey(request, returnClass, parameterClass);
+        T cachedObject = this.getCachedObject(objectCacheKey);
+        if (cachedObject != null) {
+            return CompletableFuture.completedFuture(cachedObject);
+        }
+
+        return this.executeAsync(() -> request, this.gsonReader(request, objectCacheKey, returnClass, parameterClass), this.parseExecutor);
+    }
+
+    /**
+     * Async call whose response body is read on the parse executor.
+     */
+    <R> CompletableFuture<R> callAsync(Supplier<Request> requestSupplier, CallFutures.ResponseBodyReader<R> reader) {
+        return this.executeAsync(requestSupplier, reader, this.parseExecutor);
+    }
+
+    /**
+     * Stream the response body into the target file (byte ranges fetched concurrently with downloadOption.segmentCount > 1).
+     */
+    DownloadResult download(String path, Path target, DownloadOption downloadOption) {
+        try {
+            Request request = this.buildDownloadRequest(path);
+            if (downloadOption.getSegmentCount() > 1) {
+                return RangedDownloader.download(this.okHttpClient, request, target, downloadOption);
+            }
+            return Downloads.download(this.okHttpClient.newCall(request), target, downloadOption);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    DownloadResult download(String path, WritableByteChannel channel, DownloadOption downloadOption) {
+        try {
+            return Downloads.download(this.okHttpClient.newCall(this.buildDownloadRequest(path)), channel, downloadOption);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    UploadResult upload(String path, File file, UploadOption uploadOption) {
+        try {
+            HttpUrl completeUrl = uploadOption.getCompletePath() != null
+                    ? HttpUrl.get(this.getRestApiUrl(uploadOption.getCompletePath()))
+                    : null;
+            return ChunkedUploader.upload(this.okHttpClient, HttpUrl.get(this.getRestApiUrl(path)), completeUrl, file.toPath(), uploadOption);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    Request buildRequest(String httpMethod, String path) {
+        return this.buildRequest(httpMethod, HttpUrl.get(this.getRestApiUrl(path)), null);
+    }
+
+    Request buildRequest(String httpMethod, Route route) {
+        return this.buildRequest(httpMethod, route.getUrl(), route.getRouteTemplate().getPathTemplate());
+    }
+
+    Request buildRequestWithJson(String httpMethod, String path, Object jsonObject) {
+        return this.buildRequestWithJson(httpMethod, HttpUrl.get(this.getRestApiUrl(path)), null, jsonObject);
+    }
+
+    Request buildRequestWithJson(String httpMethod, Route route, Object jsonObject) {
+        return this.buildRequestWithJson(httpMethod, route.getUrl(), route.getRouteTemplate().getPathTemplate(), jsonObject);
+    }
+
+    Request buildRequestWithFormData(String httpMethod, String path, Map<String, String> parameterMap) {
+        // Request.Builder
+        HttpUrl url = HttpUrl.get(this.getRestApiUrl(path));
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(url);
+
+        // HttpMethod
+        switch(httpMethod.toUpperCase()) {
+            case "GET":
+                requestBuilder.url(this.getRestApiUrl(url, parameterMap))
+                        .get();
+                break;
+            case "POST":
+            case "PUT":
+            case "DELETE":
+                // FormBody.Builder (RequestBodyBuilder)
+                FormBody.Builder formBodyBuilder = new FormBody.Builder();
+                parameterMap.forEach(formBodyBuilder::add);
+
+                RequestBody requestBody = formBodyBuilder.build();
+                requestBuilder.method(httpMethod, requestBody);
+                break;
+            default:
+                throw new RuntimeException("Http Method Not Supported. " + httpMethod);
+        }
+
+        // Request
+        return requestBuilder.build();
+    }
+
+    Request buildRequestWithMultipartFormData(String httpMethod, String path, Map<String, String> parameterMap, List<File> fileList) {
+        return this.buildRequestWithFileParts(httpMethod, path, parameterMap,
+                fileList.stream().map(FilePart::of).collect(Collectors.toList()));
+    }
+
+    Request buildRequestWithFileParts(String httpMethod, String path, Map<String, String> parameterMap, List<FilePart> filePartList) {
+        // Request.Builder
+        HttpUrl url = HttpUrl.get(this.getRestApiUrl(path));
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(url);
+
+        // HttpMethod
+        switch(httpMethod.toUpperCase()) {
+            case "GET":
+                requestBuilder.url(this.getRestApiUrl(url, parameterMap))
+                        .get();
+                break;
+            case "POST":
+            case "PUT":
+            case "DELETE":
+                // RequestBodyBuilder
+                MultipartBody.Builder requestBodyBuilder = new MultipartBody.Builder()
+                        .setType(MultipartBody.FORM);
+
+                for (FilePart filePart : filePartList) {
+                    requestBodyBuilder.addPart(filePart.toPart());
+                }
+
+                for (String key : parameterMap.keySet()) {
+                    requestBodyBuilder.addFormDataPart(key, parameterMap.get(key));
+                }
+
+                RequestBody requestBody = requestBodyBuilder.build();
+                requestBuilder.method(httpMethod, requestBody);
+                break;
+            default:
+                throw new RuntimeException("Http Method Not Supported. " + httpMethod);
+        }
+
+        // Request
+        return requestBuilder.build();
+    }
+
+    private String getRestApiUrl(String path) {
+        try {
+            String url = this.endPoint.getUrl() + path;
+            return url;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private HttpUrl getRestApiUrl(HttpUrl url, Object object) {
+        try {
+            HttpUrl.Builder httpUrlBuilder = url.newBuilder();
+
+            QueryParameterBinder.bind(httpUrlBuilder, object);
+
+            return httpUrlBuilder.build();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private HttpUrl getRestApiUrl(HttpUrl url, Map<String, String> queryParams) {
+        try {
+            HttpUrl.Builder httpUrlBuilder = url.newBuilder();
+
+            queryParams.forEach(httpUrlBuilder::addQueryParameter);
+
+            return httpUrlBuilder.build();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private T parseGson(Reader reader, Class<T> returnClass, Class<?> ... parameterClass) {
+        T result;
+        try {
+            JsonReader jsonReader = this.gson.newJsonReader(reader);
+            if (parameterClass.length > 0) {
+                result = this.gson.fromJson(jsonReader, TypeToken.getParameterized(returnClass, parameterClass).getType());
+            }
+            else {
+                result = this.gson.fromJson(jsonReader, returnClass);
+            }
+        } catch (Exception e){
+            throw new RuntimeException(e);
+        }
+
+        return result;
+    }
+
+    private Request buildRequest(String httpMethod, HttpUrl url, PathTemplate pathTemplate) {
+        // Request.Builder
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(url)
+                .tag(PathTemplate.class, pathTemplate);
+
+        // HttpMethod
+        switch(httpMethod.toUpperCase()) {
+            case "GET":
+                requestBuilder.get();
+                break;
+            case "POST":
+            case "PUT":
+            case "DELETE":
+                // RequestBody Builder
+                requestBuilder.method(
+                        httpMethod,
+                        RequestBody.create(new byte[0], DEFAULT_MEDIA_TYPE)
+                );
+                break;
+            default:
+                throw new RuntimeException("Http Method Not Supported. " + httpMethod);
+        }
+
+        // Request
+        return requestBuilder.build();
+    }
+
+    private Request buildDownloadRequest(String path) {
+        // the response cache would keep a copy of the body
+        return this.buildRequest("GET", path)
+                .newBuilder()
+                .cacheControl(CacheControl.FORCE_NETWORK)
+                .build();
+    }
+
+    private Request buildRequestWithJson(String httpMethod, HttpUrl url, PathTemplate pathTemplate, Object jsonObject) {
+        // Request.Builder
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(url)
+                .tag(PathTemplate.class, pathTemplate);
+
+        // HttpMethod
+        switch(httpMethod.toUpperCase()) {
+            case "GET":
+                requestBuilder
+                        .url(this.getRestApiUrl(url, jsonObject))
+                        .get();
+                break;
+            case "POST":
+            case "PUT":
+            case "DELETE":
+                // RequestBody Builder
+                RequestBody requestBody = new GsonRequestBody(
+                        this.gson,
+                        jsonObject,
+                        jsonObject.getClass(),
+                        GsonRequestBody.DEFAULT_MEDIA_TYPE,
+                        this.requestBodyOption
+                );
+
+                requestBuilder.method(httpMethod, requestBody);
+                break;
+            default:
+                throw new RuntimeException("Http Method Not Supported. " + httpMethod);
+        }
+
+        // Request
+        return requestBuilder.build();
+    }
+
+    private boolean isHedged(Request request) {
+        return this.hedgingExecutor != null && "GET".equals(request.method());
+    }
+
+    // TODO: Handle Response. (if not successful response)
+    // response.isSuccessful();
+    // response.isRedirect();
+    private String execute(Request request) throws IOException {
+        // Hedged GET
+        if (this.isHedged(request)) {
+            return CallFutures.join(this.executeAsync(() -> request, ResponseBody::string, CallFutures.DIRECT_EXECUTOR));
+        }
+
+        // Response
+        Response response = this.okHttpClient.newCall(request).execute();
+        String result = Objects.requireNonNull(response.body()).string();
+
+        // Response Status Check
+        if (!response.isSuccessful() && !response.isRedirect()) {
+            throw new RuntimeException("Response is not successful. " + result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Execute the request and deserialize the response body while it streams in (no intermediate String).
+     */
+    private T execute(Request request, Class<T> returnClass, Class<?> ... parameterClass) throws IOException {
+        // Deserialized Object Cache
+        String objectCacheKey = this.getObjectCacheKey(request, returnClass, parameterClass);
+        T cachedObject = this.getCachedObject(objectCacheKey);
+        if (cachedObject != null) {
+            return cachedObject;
+        }
+
+        // Hedged GET
+        if (this.isHedged(request)) {
+            return CallFutures.join(this.executeAsync(() -> request, this.gsonReader(request, objectCacheKey, returnClass, parameterClass), CallFutures.DIRECT_EXECUTOR));
+        }
+
+        // Response
+        try (Response response = this.okHttpClient.newCall(request).execute()) {
+            ResponseBody responseBody = Objects.requireNonNull(response.body());
+
+            // Response Status Check
+            if (!response.isSuccessful() && !response.isRedirect()) {
+                throw new RuntimeException("Response is not successful. " + responseBody.string());
+            }
+
+            return this.gsonReader(request, objectCacheKey, returnClass, parameterClass).read(responseBody);
+        }
+    }
+
+    private CallFutures.ResponseBodyReader<T> gsonReader(Request request, String objectCacheKey, Class<T> returnClass, Class<?> ... parameterClass) {
+        ResponseCache objectCache = this.objectCache;
+        return responseBody -> {
+            long parseStart = System.nanoTime();
+            T result = this.parseGson(responseBody.charStream(), returnClass, parameterClass);
+            this.metricsRegistry.recordLatency(MetricNames.PARSE, MetricTags.of(request), System.nanoTime() - parseStart);
+            if (objectCacheKey != null && result != null) {
+                objectCache.putObject(objectCacheKey, result);
+            }
+            return result;
+        };
+    }
+
+    private String getObjectCacheKey(Request request, Class<T> returnClass, Class<?> ... parameterClass) {
+        if (this.objectCache == null || !"GET".equals(request.method())) {
+            return null;
+        }
+
+        Type type = parameterClass.length > 0
+                ? TypeToken.getParameterized(returnClass, parameterClass).getType()
+                : returnClass;
+        return CacheKeys.canonicalUrl(request.url()) + "#" + type.getTypeName();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T getCachedObject(String objectCacheKey) {
+        ResponseCache objectCache = this.objectCache;
+        return objectCacheKey != null && objectCache != null ? (T) objectCache.getObject(objectCacheKey) : null;
+    }
+
+    private <R> CompletableFuture<R> executeAsync(Supplier<Request> requestSupplier, CallFutures.ResponseBodyReader<R> reader, Executor executor) {
+        Request request;
+        try {
+            request = requestSupplier.get();
+        } catch (Exception e) {
+            return CallFutures.failed(e);
+        }
+
+        // Hedged GET
+        if (this.isHedged(request)) {
+            return this.hedgingExecutor.execute(hedge ->
+                    CallFutures.enqueue(this.okHttpClient.newCall(hedge ? HedgeAttempt.tag(request) : request), reader, executor));
+        }
+
+        return CallFutures.enqueue(this.okHttpClient.newCall(request), reader, executor);
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.okhttp.batch;
+
+import com.example.okhttp.AsyncHttpClient;
+import com.example.okhttp.model.BatchingOption;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects small JSON submissions and POSTs them as one JSON array (linger / batch model).
+ * The endpoint must answer with a JSON array holding one result per item, in item order; every caller gets the
+ * result of its own item. Items wait in a lock-free queue; when maxQueueSize items are queued or in flight,
+ * submit() blocks up to maxBlockTime and then fails with RejectedExecutionException. An item holds its permit until
+ * the response of its batch arrives, so a slow endpoint (or a full Dispatcher queue) pushes back on submitters.
+ *
+ * @param <I> item type
+ * @param <R> result type of a single item
+ */
+public class BatchingSubmitter<I, R> implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(BatchingSubmitter.class);
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "okhttp-batching-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AsyncHttpClient<?> client;
+    private final String path;
+    private final Class<R> resultClass;
+    private final BatchingOption batchingOption;
+    private final Gson gson;
+
+    private final Queue<Submission<R>> queue = new ConcurrentLinkedQueue<>();
+    private final Semaphore queuePermits;
+    private final AtomicInteger queuedCount = new AtomicInteger();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicBoolean lingerScheduled = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder itemCount = new LongAdder();
+
+    public BatchingSubmitter(AsyncHttpClient<?> client, String path, Class<R> resultClass, BatchingOption batchingOption) {
+        this(client, path, resultClass, batchingOption, new Gson());
+    }
+
+    /**
+     *
+     * @param client client used to POST the batches (callPostMethodWithJsonAsync)
+     * @param path path of the batch endpoint
+     * @param resultClass type of a single element of the response array
+     * @param batchingOption maxBatchSize, maxBatchBytes, lingerTime, maxQueueSize, maxBlockTime
+     * @param gson serializes items and parses results
+     */
+    public BatchingSubmitter(AsyncHttpClient<?> client, String path, Class<R> resultClass, BatchingOption batchingOption, Gson gson) {
+        this.client = Objects.requireNonNull(client);
+        this.path = Objects.requireNonNull(path);
+        this.resultClass = Objects.requireNonNull(resultClass);
+        this.batchingOption = Objects.requireNonNull(batchingOption);
+        this.gson = Objects.requireNonNull(gson);
+        this.queuePermits = new Semaphore(batchingOption.getMaxQueueSize());
+    }
+
+    /**
+     * Queue the item for the next batch.
+     *
+     * @return future completed with the result of this item, or failed with RejectedExecutionException
+     * when the queue stayed full for maxBlockTime
+     */
+    public CompletableFuture<R> submit(I item) {
+        if (this.closed.get()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("BatchingSubmitter is closed"));
+        }
+
+        try {
+            if (!this.queuePermits.tryAcquire(this.batchingOption.getMaxBlockTime(), this.batchingOption.getTimeUnit())) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "BatchingSubmitter queue is full (" + this.batchingOption.getMaxQueueSize() + " items)"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new RuntimeException(e));
+        }
+
+        Submission<R> submission;
+        try {
+            String json = this.gson.toJson(item);
+            submission = new Submission<>(new RawJson(json), json.getBytes(StandardCharsets.UTF_8).length);
+        } catch (Exception e) {
+            this.queuePermits.release();
+            return CompletableFuture.failedFuture(new RuntimeException(e));
+        }
+
+        this.queue.offer(submission);
+        int count = this.queuedCount.incrementAndGet();
+        long bytes = this.queuedBytes.addAndGet(submission.bytes);
+
+        if (count >= this.batchingOption.getMaxBatchSize() || bytes >= this.batchingOption.getMaxBatchBytes()) {
+            this.sendBatch();
+        } else if (this.lingerScheduled.compareAndSet(false, true)) {
+            SCHEDULER.schedule(() -> {
+                this.lingerScheduled.set(false);
+                this.flush();
+            }, this.batchingOption.getLingerTime(), this.batchingOption.getTimeUnit());
+        }
+
+        return submission.future;
+    }
+
+    /**
+     * Send every queued item now.
+     */
+    public void flush() {
+        while (this.sendBatch() > 0) {
+            // keep sending until the queue is empty
+        }
+    }
+
+    /**
+     * Reject new items and send the queued ones.
+     */
+    @Override
+    public void close() {
+        if (this.closed.compareAndSet(false, true)) {
+            this.flush();
+        }
+    }
+
+    public int getQueuedCount() {
+        return this.queuedCount.get();
+    }
+
+    public long getBatchCount() {
+        return this.batchCount.sum();
+    }
+
+    public long getItemCount() {
+        return this.itemCount.sum();
+    }
+
+    /**
+     * Take up to maxBatchSize items (and about maxBatchBytes) from the queue and POST them.
+     *
+     * @return number of items sent
+     */
+    private int sendBatch() {
+        List<Submission<R>> batch = new ArrayList<>();
+        long batchBytes = 0;
+        while (batch.size() < this.batchingOption.getMaxBatchSize() && batchBytes < this.batchingOption.getMaxBatchBytes()) {
+            Submission<R> submission = this.queue.poll();
+            if (submission == null) {
+                break;
+            }
+            batch.add(submission);
+            batchBytes += submission.bytes;
+        }
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        this.queuedCount.addAndGet(-batch.size());
+        this.queuedBytes.addAndGet(-batchBytes);
+        this.batchCount.increment();
+        this.itemCount.add(batch.size());
+
+        List<RawJson> payload = new ArrayList<>(batch.size());
+        batch.forEach(submission -> payload.add(submission.json));
+
+        CompletableFuture<String> response;
+        try {
+            response = this.client.callPostMethodWithJsonAsync(this.path, payload);
+        } catch (Exception e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        response.whenComplete((body, throwable) -> {
+            this.queuePermits.release(batch.size());
+            if (throwable != null) {
+                Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                batch.forEach(submission -> submission.future.completeExceptionally(cause));
+            } else {
+                this.complete(batch, body);
+            }
+        });
+
+        return batch.size();
+    }
+
+    private void complete(List<Submission<R>> batch, String body) {
+        JsonArray results;
+        try {
+            results = this.gson.fromJson(body, JsonArray.class);
+        } catch (Exception e) {
+            RuntimeException exception = new RuntimeException("Batch response is not a JSON array", e);
+            batch.forEach(submission -> submission.future.completeExceptionally(exception));
+            return;
+        }
+
+        if (results == null || results.size() != batch.size()) {
+            log.warn("Batch of {} items answered with {} results", batch.size(), results != null ? results.size() : 0);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Submission<R> submission = batch.get(i);
+            if (results == null || i >= results.size()) {
+                submission.future.completeExceptionally(new RuntimeException("No result for batch item " + i));
+                continue;
+            }
+
+            try {
+                JsonElement result = results.get(i);
+                submission.future.complete(this.gson.fromJson(result, this.resultClass));
+            } catch (Exception e) {
+                submission.future.completeExceptionally(new RuntimeException(e));
+            }
+        }
+    }
+
+    private static final class Submission<R> {
+        private final RawJson json;
+        private final int bytes;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        private Submission(RawJson json, int bytes) {
+            this.json = json;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.okhttp.batch;
+
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Already serialized JSON value, written as is so that queued items are serialized only once.
+ */
+@JsonAdapter(RawJson.Adapter.class)
+final class RawJson {
+    private final String json;
+
+    RawJson(String json) {
+        this.json = json;
+    }
+
+    static final class Adapter extends TypeAdapter<RawJson> {
+        @Override
+        public void write(JsonWriter out, RawJson value) throws IOException {
+            out.jsonValue(value.json);
+        }
+
+        @Override
+        public RawJson read(JsonReader in) {
+            return new RawJson(JsonParser.parseReader(in).toString());
+        }
+    }
+}
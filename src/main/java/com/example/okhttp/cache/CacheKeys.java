@@ -0,0 +1,34 @@
+package com.example.okhttp.cache;
+
+import okhttp3.HttpUrl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cache keys: the URL with its query parameters sorted by name, then value.
+ */
+public final class CacheKeys {
+    private CacheKeys() {
+    }
+
+    public static String canonicalUrl(HttpUrl url) {
+        if (url.querySize() <= 1) {
+            return url.toString();
+        }
+
+        List<String[]> parameters = new ArrayList<>(url.querySize());
+        for (int i = 0; i < url.querySize(); i++) {
+            parameters.add(new String[]{url.queryParameterName(i), url.queryParameterValue(i)});
+        }
+        parameters.sort(Comparator.<String[], String>comparing(p -> p[0])
+                .thenComparing(p -> p[1], Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        HttpUrl.Builder builder = url.newBuilder().query(null);
+        for (String[] parameter : parameters) {
+            builder.addQueryParameter(parameter[0], parameter[1]);
+        }
+        return builder.build().toString();
+    }
+}
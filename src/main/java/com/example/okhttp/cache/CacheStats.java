@@ -0,0 +1,81 @@
+package com.example.okhttp.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache counters (live view).
+ */
+public class CacheStats {
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder objectHitCount = new LongAdder();
+    private final LongAdder objectMissCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    void recordHit() {
+        this.hitCount.increment();
+    }
+
+    void recordMiss() {
+        this.missCount.increment();
+    }
+
+    void recordObjectHit() {
+        this.objectHitCount.increment();
+    }
+
+    void recordObjectMiss() {
+        this.objectMissCount.increment();
+    }
+
+    void recordEviction() {
+        this.evictionCount.increment();
+    }
+
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    public double getHitRate() {
+        return rate(this.getHitCount(), this.getMissCount());
+    }
+
+    public long getObjectHitCount() {
+        return this.objectHitCount.sum();
+    }
+
+    public long getObjectMissCount() {
+        return this.objectMissCount.sum();
+    }
+
+    public double getObjectHitRate() {
+        return rate(this.getObjectHitCount(), this.getObjectMissCount());
+    }
+
+    /**
+     * Entries removed because of the size bound or expiry.
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    private static double rate(long hit, long miss) {
+        return hit + miss == 0 ? 0 : (double) hit / (hit + miss);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hitCount=" + this.getHitCount() +
+                ", missCount=" + this.getMissCount() +
+                ", hitRate=" + this.getHitRate() +
+                ", objectHitCount=" + this.getObjectHitCount() +
+                ", objectMissCount=" + this.getObjectMissCount() +
+                ", evictionCount=" + this.getEvictionCount() +
+                '}';
+    }
+}
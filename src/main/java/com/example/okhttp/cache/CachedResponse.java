@@ -0,0 +1,54 @@
+package com.example.okhttp.cache;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+
+/**
+ * Immutable copy of a response, held by the heap cache and shared by coalesced requests.
+ */
+public class CachedResponse {
+    private final Protocol protocol;
+    private final int code;
+    private final String message;
+    private final Headers headers;
+    private final MediaType contentType;
+    private final byte[] body;
+
+    public CachedResponse(Protocol protocol, int code, String message, Headers headers, MediaType contentType, byte[] body) {
+        this.protocol = protocol;
+        this.code = code;
+        this.message = message;
+        this.headers = headers;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    public static CachedResponse of(Response response, ResponseBody body) throws IOException {
+        return new CachedResponse(response.protocol(), response.code(), response.message(), response.headers(),
+                body.contentType(), body.bytes());
+    }
+
+    public int getBodySize() {
+        return this.body.length;
+    }
+
+    public Response toResponse(Request request) {
+        long now = System.currentTimeMillis();
+        return new Response.Builder()
+                .request(request)
+                .protocol(this.protocol)
+                .code(this.code)
+                .message(this.message)
+                .headers(this.headers)
+                .body(ResponseBody.create(this.body, this.contentType))
+                .sentRequestAtMillis(now)
+                .receivedResponseAtMillis(now)
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.okhttp.cache;
+
+import com.example.okhttp.model.CacheOption;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache with a time to live, one map per tier (response bodies, deserialized objects).
+ */
+public class LruResponseCache implements ResponseCache {
+    private final Store<CachedResponse> responses;
+    private final Store<Object> objects;
+    private final CacheStats stats = new CacheStats();
+
+    public LruResponseCache(CacheOption cacheOption) {
+        long ttlNanos = cacheOption.getTimeUnit().toNanos(cacheOption.getTtl());
+        this.responses = new Store<>(cacheOption.getMaxEntries(), ttlNanos);
+        this.objects = new Store<>(cacheOption.getMaxEntries(), ttlNanos);
+    }
+
+    @Override
+    public CachedResponse get(String key) {
+        CachedResponse cachedResponse = this.responses.get(key);
+        if (cachedResponse != null) {
+            this.stats.recordHit();
+        } else {
+            this.stats.recordMiss();
+        }
+        return cachedResponse;
+    }
+
+    @Override
+    public void put(String key, CachedResponse cachedResponse) {
+        this.responses.put(key, cachedResponse);
+    }
+
+    @Override
+    public Object getObject(String key) {
+        Object value = this.objects.get(key);
+        if (value != null) {
+            this.stats.recordObjectHit();
+        } else {
+            this.stats.recordObjectMiss();
+        }
+        return value;
+    }
+
+    @Override
+    public void putObject(String key, Object value) {
+        this.objects.put(key, value);
+    }
+
+    @Override
+    public void invalidateAll() {
+        this.responses.clear();
+        this.objects.clear();
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return this.stats;
+    }
+
+    private class Store<V> {
+        private final int maxEntries;
+        private final long ttlNanos;
+        private final LinkedHashMap<String, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+
+        Store(int maxEntries, long ttlNanos) {
+            this.maxEntries = maxEntries;
+            this.ttlNanos = ttlNanos;
+        }
+
+        synchronized V get(String key) {
+            Entry<V> entry = this.map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAtNanos >= 0) {
+                this.map.remove(key);
+                stats.recordEviction();
+                return null;
+            }
+            return entry.value;
+        }
+
+        synchronized void put(String key, V value) {
+            this.map.put(key, new Entry<>(value, System.nanoTime() + this.ttlNanos));
+
+            Iterator<Map.Entry<String, Entry<V>>> iterator = this.map.entrySet().iterator();
+            while (this.map.size() > this.maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                stats.recordEviction();
+            }
+        }
+
+        synchronized void clear() {
+            this.map.clear();
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAtNanos;
+
+        Entry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.okhttp.cache;
+
+/**
+ * Heap response cache (SPI).
+ * Holds raw GET response bodies and, optionally, the objects deserialized from them. Implementations must be thread-safe.
+ */
+public interface ResponseCache {
+    CachedResponse get(String key);
+
+    void put(String key, CachedResponse cachedResponse);
+
+    Object getObject(String key);
+
+    void putObject(String key, Object value);
+
+    void invalidateAll();
+
+    CacheStats getStats();
+}
@@ -0,0 +1,53 @@
+package com.example.okhttp.cache;
+
+import com.example.okhttp.model.CacheOption;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+
+/**
+ * First application interceptor: answers GET requests from the heap cache and stores successful GET responses
+ * up to maxEntryBytes. Requests with "Cache-Control: no-cache" and responses with "no-store" bypass the cache, and so
+ * do requests with a Range header (the key has no Range: a full response must not answer a range request, and a
+ * partial one must not be stored).
+ */
+public class ResponseCacheInterceptor implements Interceptor {
+    private final ResponseCache responseCache;
+    private final int maxEntryBytes;
+
+    public ResponseCacheInterceptor(ResponseCache responseCache, CacheOption cacheOption) {
+        this.responseCache = responseCache;
+        this.maxEntryBytes = cacheOption.getMaxEntryBytes();
+    }
+
+    public ResponseCache getResponseCache() {
+        return this.responseCache;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method()) || request.cacheControl().noCache() || request.header("Range") != null) {
+            return chain.proceed(request);
+        }
+
+        String key = CacheKeys.canonicalUrl(request.url());
+        CachedResponse cachedResponse = this.responseCache.get(key);
+        if (cachedResponse != null) {
+            return cachedResponse.toResponse(request);
+        }
+
+        Response response = chain.proceed(request);
+        if (response.code() == 200 && !response.cacheControl().noStore()) {
+            // peek keeps the original body streamable
+            ResponseBody peekBody = response.peekBody(this.maxEntryBytes + 1L);
+            if (peekBody.contentLength() <= this.maxEntryBytes) {
+                this.responseCache.put(key, CachedResponse.of(response, peekBody));
+            }
+        }
+        return response;
+    }
+}
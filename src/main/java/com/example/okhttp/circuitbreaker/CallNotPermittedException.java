@@ -0,0 +1,14 @@
+package com.example.okhttp.circuitbreaker;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending the request while the circuit breaker of its endpoint is open.
+ */
+public class CallNotPermittedException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public CallNotPermittedException(CircuitBreaker circuitBreaker) {
+        super("CircuitBreaker '" + circuitBreaker.getName() + "' is " + circuitBreaker.getState() + " and does not permit calls");
+    }
+}
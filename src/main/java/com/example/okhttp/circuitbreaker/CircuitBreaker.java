@@ -0,0 +1,209 @@
+package com.example.okhttp.circuitbreaker;
+
+import com.example.okhttp.model.CircuitBreakerOption;
+
+import java.util.List;
+
+/**
+ * Count-based sliding window circuit breaker.
+ *
+ * CLOSED -> OPEN: failure rate or slow call rate reaches its threshold (after minimumNumberOfCalls)
+ * OPEN -> HALF_OPEN: waitDurationInOpenState elapsed; the next calls are probes
+ * HALF_OPEN -> CLOSED / OPEN: evaluated once permittedCallsInHalfOpenState probes completed
+ */
+public class CircuitBreaker {
+    private final String name;
+    private final CircuitBreakerOption option;
+    private final long slowCallDurationNanos;
+    private final long waitDurationNanos;
+    private final List<CircuitBreakerListener> listeners;
+
+    // guarded by this
+    private CircuitBreakerState state = CircuitBreakerState.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private byte[] outcomes;
+    private int outcomeIndex;
+    private int bufferedCalls;
+    private int failedCalls;
+    private int slowCalls;
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+    private static final byte SLOW_FAILURE = FAILURE | SLOW;
+
+    CircuitBreaker(String name, CircuitBreakerOption option, List<CircuitBreakerListener> listeners) {
+        this.name = name;
+        this.option = option;
+        this.slowCallDurationNanos = option.getTimeUnit().toNanos(option.getSlowCallDuration());
+        this.waitDurationNanos = option.getTimeUnit().toNanos(option.getWaitDurationInOpenState());
+        this.listeners = listeners;
+        this.resetWindow(option.getSlidingWindowSize());
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public synchronized CircuitBreakerState getState() {
+        return this.state;
+    }
+
+    /**
+     * Failure rate (percent) of the buffered calls, or -1 below minimumNumberOfCalls.
+     */
+    public synchronized float getFailureRate() {
+        return this.bufferedCalls < this.minimumNumberOfCalls() ? -1 : this.failedCalls * 100f / this.bufferedCalls;
+    }
+
+    /**
+     * Slow call rate (percent) of the buffered calls, or -1 below minimumNumberOfCalls.
+     */
+    public synchronized float getSlowCallRate() {
+        return this.bufferedCalls < this.minimumNumberOfCalls() ? -1 : this.slowCalls * 100f / this.bufferedCalls;
+    }
+
+    public synchronized int getBufferedCalls() {
+        return this.bufferedCalls;
+    }
+
+    /**
+     * Acquire a permission to call. Each granted permission must be followed by onSuccess, onError or releasePermission.
+     */
+    public boolean tryAcquirePermission() {
+        CircuitBreakerState from;
+        synchronized (this) {
+            switch (this.state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.nanoTime() - this.openedAtNanos < this.waitDurationNanos) {
+                        return false;
+                    }
+                    from = this.transitionTo(CircuitBreakerState.HALF_OPEN);
+                    this.halfOpenPermits--;
+                    break;
+                case HALF_OPEN:
+                default:
+                    if (this.halfOpenPermits <= 0) {
+                        return false;
+                    }
+                    this.halfOpenPermits--;
+                    return true;
+            }
+        }
+
+        this.publish(from, CircuitBreakerState.HALF_OPEN);
+        return true;
+    }
+
+    /**
+     * Give back a permission without recording an outcome (the call was canceled).
+     */
+    public synchronized void releasePermission() {
+        if (this.state == CircuitBreakerState.HALF_OPEN
+                && this.halfOpenPermits < this.option.getPermittedCallsInHalfOpenState()) {
+            this.halfOpenPermits++;
+        }
+    }
+
+    public void onSuccess(long durationNanos) {
+        this.record(durationNanos >= this.slowCallDurationNanos ? SLOW : SUCCESS);
+    }
+
+    public void onError(long durationNanos) {
+        this.record(durationNanos >= this.slowCallDurationNanos ? SLOW_FAILURE : FAILURE);
+    }
+
+    private void record(byte outcome) {
+        CircuitBreakerState from;
+        CircuitBreakerState to;
+        synchronized (this) {
+            if (this.state == CircuitBreakerState.OPEN) {
+                return;
+            }
+
+            byte evicted = this.outcomes[this.outcomeIndex];
+            this.outcomes[this.outcomeIndex] = outcome;
+            this.outcomeIndex = (this.outcomeIndex + 1) % this.outcomes.length;
+            if (this.bufferedCalls == this.outcomes.length) {
+                this.failedCalls -= evicted & FAILURE;
+                this.slowCalls -= (evicted & SLOW) >> 1;
+            } else {
+                this.bufferedCalls++;
+            }
+            this.failedCalls += outcome & FAILURE;
+            this.slowCalls += (outcome & SLOW) >> 1;
+
+            if (this.bufferedCalls < this.minimumNumberOfCalls()) {
+                return;
+            }
+
+            boolean exceeded = this.getFailureRate() >= this.option.getFailureRateThreshold()
+                    || this.getSlowCallRate() >= this.option.getSlowCallRateThreshold();
+
+            if (exceeded) {
+                to = CircuitBreakerState.OPEN;
+            } else if (this.state == CircuitBreakerState.HALF_OPEN) {
+                to = CircuitBreakerState.CLOSED;
+            } else {
+                return;
+            }
+            from = this.transitionTo(to);
+        }
+
+        this.publish(from, to);
+    }
+
+    private int minimumNumberOfCalls() {
+        return this.state == CircuitBreakerState.HALF_OPEN
+                ? this.option.getPermittedCallsInHalfOpenState()
+                : Math.min(this.option.getMinimumNumberOfCalls(), this.option.getSlidingWindowSize());
+    }
+
+    // caller holds the lock
+    private CircuitBreakerState transitionTo(CircuitBreakerState to) {
+        CircuitBreakerState from = this.state;
+        this.state = to;
+
+        switch (to) {
+            case OPEN:
+                this.openedAtNanos = System.nanoTime();
+                break;
+            case HALF_OPEN:
+                this.halfOpenPermits = this.option.getPermittedCallsInHalfOpenState();
+                this.resetWindow(this.option.getPermittedCallsInHalfOpenState());
+                break;
+            case CLOSED:
+            default:
+                this.resetWindow(this.option.getSlidingWindowSize());
+                break;
+        }
+        return from;
+    }
+
+    private void resetWindow(int size) {
+        this.outcomes = new byte[Math.max(1, size)];
+        this.outcomeIndex = 0;
+        this.bufferedCalls = 0;
+        this.failedCalls = 0;
+        this.slowCalls = 0;
+    }
+
+    private void publish(CircuitBreakerState from, CircuitBreakerState to) {
+        for (CircuitBreakerListener listener : this.listeners) {
+            listener.onStateTransition(this, from, to);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{" +
+                "name=" + this.name +
+                ", state=" + this.getState() +
+                ", failureRate=" + this.getFailureRate() +
+                ", slowCallRate=" + this.getSlowCallRate() +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.okhttp.circuitbreaker;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * Application interceptor guarding each endpoint with its circuit breaker.
+ * It must run after the load balancing interceptor so it sees the node actually called.
+ * IOExceptions and 5xx responses are failures; canceled calls (hedge losers, user cancels) are not recorded.
+ */
+public class CircuitBreakerInterceptor implements Interceptor {
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    public CircuitBreakerInterceptor(CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+    }
+
+    public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+        return this.circuitBreakerRegistry;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        HttpUrl url = chain.request().url();
+        CircuitBreaker circuitBreaker = this.circuitBreakerRegistry.circuitBreaker(url.scheme() + "://" + url.host() + ":" + url.port());
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new CallNotPermittedException(circuitBreaker);
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            Response response = chain.proceed(chain.request());
+            if (response.code() >= 500) {
+                circuitBreaker.onError(System.nanoTime() - startNanos);
+            } else {
+                circuitBreaker.onSuccess(System.nanoTime() - startNanos);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            if (chain.call().isCanceled()) {
+                circuitBreaker.releasePermission();
+            } else {
+                circuitBreaker.onError(System.nanoTime() - startNanos);
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.okhttp.circuitbreaker;
+
+/**
+ * Observer of circuit breaker state transitions.
+ * Called synchronously on the thread that recorded the triggering call; keep it cheap.
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+    void onStateTransition(CircuitBreaker circuitBreaker, CircuitBreakerState from, CircuitBreakerState to);
+}
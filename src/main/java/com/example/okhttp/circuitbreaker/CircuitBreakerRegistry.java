@@ -0,0 +1,47 @@
+package com.example.okhttp.circuitbreaker;
+
+import com.example.okhttp.model.CircuitBreakerOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One {@link CircuitBreaker} per endpoint (scheme://host:port), created on first use.
+ * State transitions are logged and published to the registered listeners.
+ */
+public class CircuitBreakerRegistry {
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreakerRegistry.class);
+
+    private final CircuitBreakerOption circuitBreakerOption;
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<>();
+
+    public CircuitBreakerRegistry(CircuitBreakerOption circuitBreakerOption) {
+        this.circuitBreakerOption = circuitBreakerOption;
+        this.listeners.add((circuitBreaker, from, to) ->
+                log.warn("CircuitBreaker '{}' changed state from {} to {}", circuitBreaker.getName(), from, to));
+    }
+
+    public CircuitBreaker circuitBreaker(String name) {
+        return this.circuitBreakers.computeIfAbsent(name,
+                key -> new CircuitBreaker(key, this.circuitBreakerOption, this.listeners));
+    }
+
+    public Collection<CircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableCollection(this.circuitBreakers.values());
+    }
+
+    public void addListener(CircuitBreakerListener listener) {
+        this.listeners.add(listener);
+    }
+
+    public void removeListener(CircuitBreakerListener listener) {
+        this.listeners.remove(listener);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.okhttp.circuitbreaker;
+
+public enum CircuitBreakerState {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+}
@@ -0,0 +1,188 @@
+package com.example.okhttp.coalesce;
+
+import com.example.okhttp.cache.CacheKeys;
+import com.example.okhttp.cache.CachedResponse;
+import com.example.okhttp.hedge.HedgeAttempt;
+import com.example.okhttp.model.CoalescingOption;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single-flight for identical concurrent GET / HEAD requests (key: method + canonical URL + keyHeaders).
+ * The first request (leader) goes to the network; requests arriving while it is in flight wait and receive a copy
+ * of its response. It runs after the response cache, so only cache misses are coalesced.
+ * Hedge attempts are never coalesced. When the leader's call is canceled (hedge loser, user cancel), its waiting
+ * requests do not fail with it: they start over and one of them becomes the new leader.
+ * A waiting request is woken up by its own cancellation through {@link #canceled(Call)}, which the client calls
+ * from its EventListener.
+ */
+public class CoalescingInterceptor implements Interceptor {
+    private final List<String> keyHeaders;
+    private final int maxBodyBytes;
+    private final ConcurrentMap<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Call, CompletableFuture<CachedResponse>> waiting = new ConcurrentHashMap<>();
+
+    private final LongAdder leaderCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    public CoalescingInterceptor(CoalescingOption coalescingOption) {
+        this.keyHeaders = coalescingOption.getKeyHeaders();
+        this.maxBodyBytes = coalescingOption.getMaxBodyBytes();
+    }
+
+    /**
+     * Requests sent to the network on behalf of a group.
+     */
+    public long getLeaderCount() {
+        return this.leaderCount.sum();
+    }
+
+    /**
+     * Requests answered with the response of another in-flight request.
+     */
+    public long getCoalescedCount() {
+        return this.coalescedCount.sum();
+    }
+
+    /**
+     * Stop waiting for the leader on behalf of a canceled call.
+     */
+    public void canceled(Call call) {
+        CompletableFuture<CachedResponse> waiter = this.waiting.get(call);
+        if (waiter != null) {
+            waiter.completeExceptionally(new IOException("Canceled"));
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method()) && !"HEAD".equals(request.method())) {
+            return chain.proceed(request);
+        }
+        // the key has no Range, partial responses must not be shared
+        if (request.header("Range") != null) {
+            return chain.proceed(request);
+        }
+        // a hedge has to overtake the in-flight request, not wait for it
+        if (HedgeAttempt.isHedge(request)) {
+            return chain.proceed(request);
+        }
+
+        String key = this.key(request);
+        while (true) {
+            CompletableFuture<CachedResponse> leader = new CompletableFuture<>();
+            CompletableFuture<CachedResponse> inFlightResponse = this.inFlight.putIfAbsent(key, leader);
+            if (inFlightResponse == null) {
+                return this.lead(chain, key, leader);
+            }
+
+            CachedResponse sharedResponse;
+            try {
+                sharedResponse = this.await(chain.call(), inFlightResponse);
+            } catch (LeaderCanceledException e) {
+                continue;
+            }
+            if (sharedResponse == null) {
+                // the leader's response was too large to share
+                return chain.proceed(request);
+            }
+            this.coalescedCount.increment();
+            return sharedResponse.toResponse(request);
+        }
+    }
+
+    private Response lead(Chain chain, String key, CompletableFuture<CachedResponse> leader) throws IOException {
+        Request request = chain.request();
+        this.leaderCount.increment();
+        try {
+            Response response = chain.proceed(request);
+
+            ResponseBody peekBody = response.peekBody(this.maxBodyBytes + 1L);
+            if (peekBody.contentLength() > this.maxBodyBytes) {
+                leader.complete(null);
+                return response;
+            }
+
+            CachedResponse sharedResponse = CachedResponse.of(response, peekBody);
+            response.close();
+            leader.complete(sharedResponse);
+            return sharedResponse.toResponse(request);
+        } catch (IOException | RuntimeException e) {
+            // removed first, so the waiting requests starting over do not find this leader again
+            this.inFlight.remove(key, leader);
+            leader.completeExceptionally(chain.call().isCanceled() ? new LeaderCanceledException() : e);
+            throw e;
+        } finally {
+            this.inFlight.remove(key, leader);
+        }
+    }
+
+    private String key(Request request) {
+        StringBuilder key = new StringBuilder(request.method())
+                .append(' ')
+                .append(CacheKeys.canonicalUrl(request.url()));
+        for (String keyHeader : this.keyHeaders) {
+            String value = request.header(keyHeader);
+            if (value != null) {
+                key.append('\n').append(keyHeader).append(':').append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    private CachedResponse await(Call call, CompletableFuture<CachedResponse> inFlightResponse) throws IOException {
+        CompletableFuture<CachedResponse> waiter = new CompletableFuture<>();
+        this.waiting.put(call, waiter);
+        try {
+            inFlightResponse.whenComplete((response, throwable) -> {
+                if (throwable != null) {
+                    waiter.completeExceptionally(throwable);
+                } else {
+                    waiter.complete(response);
+                }
+            });
+            // canceled before the waiter was registered
+            if (call.isCanceled()) {
+                waiter.completeExceptionally(new IOException("Canceled"));
+            }
+            return waiter.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a coalesced response");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof LeaderCanceledException) {
+                throw (LeaderCanceledException) e.getCause();
+            }
+            if (e.getCause() instanceof IOException) {
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            this.waiting.remove(call, waiter);
+        }
+    }
+
+    /**
+     * The leader's call was canceled; its waiting requests start over.
+     */
+    private static class LeaderCanceledException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        LeaderCanceledException() {
+            super("Coalesced request was canceled");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.okhttp.compress;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request compression counters (live view).
+ */
+public class CompressionMetrics {
+    private final LongAdder compressedCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+
+    void recordCompressed(long uncompressedBytes, long compressedBytes, long cpuNanos) {
+        this.compressedCount.increment();
+        this.uncompressedBytes.add(uncompressedBytes);
+        this.compressedBytes.add(compressedBytes);
+        this.cpuNanos.add(cpuNanos);
+    }
+
+    void recordSkipped() {
+        this.skippedCount.increment();
+    }
+
+    /**
+     * Request bodies sent compressed.
+     */
+    public long getCompressedCount() {
+        return this.compressedCount.sum();
+    }
+
+    /**
+     * Request bodies sent uncompressed because they were smaller than minSize.
+     */
+    public long getSkippedCount() {
+        return this.skippedCount.sum();
+    }
+
+    public long getUncompressedBytes() {
+        return this.uncompressedBytes.sum();
+    }
+
+    public long getCompressedBytes() {
+        return this.compressedBytes.sum();
+    }
+
+    /**
+     * Compressed bytes / uncompressed bytes of the compressed bodies (0 before the first one).
+     */
+    public double getCompressionRatio() {
+        long uncompressedBytes = this.getUncompressedBytes();
+        return uncompressedBytes > 0 ? (double) this.getCompressedBytes() / uncompressedBytes : 0;
+    }
+
+    /**
+     * Thread CPU time spent compressing (excludes serializing the body and writing to the socket).
+     */
+    public long getCpuTime(TimeUnit timeUnit) {
+        return timeUnit.convert(this.cpuNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionMetrics{" +
+                "compressedCount=" + this.getCompressedCount() +
+                ", skippedCount=" + this.getSkippedCount() +
+                ", uncompressedBytes=" + this.getUncompressedBytes() +
+                ", compressedBytes=" + this.getCompressedBytes() +
+                ", compressionRatio=" + this.getCompressionRatio() +
+                ", cpuTimeMillis=" + this.getCpuTime(TimeUnit.MILLISECONDS) +
+                '}';
+    }
+}
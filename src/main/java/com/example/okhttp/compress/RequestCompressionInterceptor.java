@@ -0,0 +1,270 @@
+package com.example.okhttp.compress;
+
+import com.example.okhttp.metrics.MetricNames;
+import com.example.okhttp.metrics.MetricTags;
+import com.example.okhttp.metrics.MetricsRegistry;
+import com.example.okhttp.model.RequestCompressionOption;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.DeflaterSink;
+import okio.ForwardingSink;
+import okio.GzipSink;
+import okio.Okio;
+import okio.Sink;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * Application interceptor compressing request bodies of minSize bytes or more (Content-Encoding: gzip or deflate).
+ * The body is compressed while OkHttp writes it to the connection and sent chunked, so it is never buffered again.
+ * Bodies whose length is unknown (e.g. JSON serialized while it is written) are first written into a buffer until
+ * it reaches minSize bytes: a smaller body is sent from that buffer uncompressed, a larger one is written again
+ * through the compressor. One-shot bodies of unknown length cannot be written twice and are always compressed.
+ * Bodies that already have a Content-Encoding and excluded content types (already compressed media) are sent as is.
+ *
+ * The compression ratio and the thread CPU time spent in the compressor are recorded per request
+ * ({@link MetricNames#REQUEST_COMPRESSION}) and summed in {@link CompressionMetrics}.
+ */
+public class RequestCompressionInterceptor implements Interceptor {
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final RequestCompressionOption.Encoding encoding;
+    private final long minSize;
+    private final int level;
+    private final List<String> excludedContentTypes;
+    private final MetricsRegistry metricsRegistry;
+    private final CompressionMetrics compressionMetrics = new CompressionMetrics();
+
+    public RequestCompressionInterceptor(RequestCompressionOption requestCompressionOption, MetricsRegistry metricsRegistry) {
+        this.encoding = requestCompressionOption.getEncoding() != null
+                ? requestCompressionOption.getEncoding() : RequestCompressionOption.DEFAULT_ENCODING;
+        // 0 and null are what the builder leaves unset
+        this.minSize = requestCompressionOption.getMinSize() > 0
+                ? requestCompressionOption.getMinSize() : RequestCompressionOption.DEFAULT_MIN_SIZE;
+        this.level = requestCompressionOption.getLevel() != Deflater.NO_COMPRESSION
+                ? requestCompressionOption.getLevel() : RequestCompressionOption.DEFAULT_LEVEL;
+        if (this.level < Deflater.DEFAULT_COMPRESSION || this.level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + this.level);
+        }
+        this.excludedContentTypes = requestCompressionOption.getExcludedContentTypes() != null
+                ? requestCompressionOption.getExcludedContentTypes() : RequestCompressionOption.DEFAULT_EXCLUDED_CONTENT_TYPES;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    public CompressionMetrics getCompressionMetrics() {
+        return this.compressionMetrics;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody body = request.body();
+        if (body == null || request.header("Content-Encoding") != null || this.isExcluded(body.contentType())) {
+            return chain.proceed(request);
+        }
+
+        long contentLength = body.contentLength();
+        if (contentLength >= 0 && contentLength < this.minSize) {
+            this.compressionMetrics.recordSkipped();
+            return chain.proceed(request);
+        }
+
+        if (contentLength < 0 && !body.isOneShot()) {
+            Buffer buffer = this.bufferUpToMinSize(body);
+            if (buffer != null) {
+                this.compressionMetrics.recordSkipped();
+                return chain.proceed(request.newBuilder()
+                        .method(request.method(), RequestBody.create(buffer.readByteString(), body.contentType()))
+                        .build());
+            }
+        }
+
+        return chain.proceed(request.newBuilder()
+                .header("Content-Encoding", this.encoding.name().toLowerCase(Locale.ROOT))
+                .removeHeader("Content-Length")
+                .method(request.method(), new CompressedRequestBody(body, MetricTags.of(request)))
+                .build());
+    }
+
+    private boolean isExcluded(MediaType contentType) {
+        if (contentType == null) {
+            return false;
+        }
+
+        String type = (contentType.type() + "/" + contentType.subtype()).toLowerCase(Locale.ROOT);
+        for (String excludedContentType : this.excludedContentTypes) {
+            if (type.startsWith(excludedContentType.toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write the body into a buffer, giving up as soon as it reaches minSize bytes.
+     *
+     * @return the whole body, or null if it is minSize bytes or larger
+     */
+    private Buffer bufferUpToMinSize(RequestBody body) throws IOException {
+        Buffer buffer = new Buffer();
+        BufferedSink sink = Okio.buffer(new ForwardingSink(buffer) {
+            @Override
+            public void write(Buffer source, long byteCount) throws IOException {
+                super.write(source, byteCount);
+                if (buffer.size() >= RequestCompressionInterceptor.this.minSize) {
+                    throw new MinSizeReachedException();
+                }
+            }
+        });
+
+        try {
+            body.writeTo(sink);
+            sink.flush();
+        } catch (IOException | RuntimeException e) {
+            // Gson wraps the IOExceptions of its writer in JsonIOException
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof MinSizeReachedException) {
+                    return null;
+                }
+            }
+            throw e;
+        }
+        return buffer.size() < this.minSize ? buffer : null;
+    }
+
+    private class CompressedRequestBody extends RequestBody {
+        private final RequestBody delegate;
+        private final MetricTags metricTags;
+
+        CompressedRequestBody(RequestBody delegate, MetricTags metricTags) {
+            this.delegate = delegate;
+            this.metricTags = metricTags;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return this.delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return -1;
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return this.delegate.isOneShot();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            // the compressor's output: closing it writes the trailer, but must not close the request body
+            CpuTimingSink compressedSink = new CpuTimingSink(new ForwardingSink(sink) {
+                @Override
+                public void close() throws IOException {
+                    this.flush();
+                }
+            });
+
+            Sink compressorSink;
+            if (RequestCompressionInterceptor.this.encoding == RequestCompressionOption.Encoding.DEFLATE) {
+                compressorSink = new DeflaterSink(compressedSink, new Deflater(RequestCompressionInterceptor.this.level));
+            } else {
+                GzipSink gzipSink = new GzipSink(compressedSink);
+                gzipSink.deflater().setLevel(RequestCompressionInterceptor.this.level);
+                compressorSink = gzipSink;
+            }
+            CpuTimingSink uncompressedSink = new CpuTimingSink(compressorSink);
+
+            BufferedSink bufferedSink = Okio.buffer(uncompressedSink);
+            this.delegate.writeTo(bufferedSink);
+            bufferedSink.close();
+
+            // time in the compressor = time below the uncompressed sink - time below the compressed sink
+            long cpuNanos = Math.max(0, uncompressedSink.cpuNanos - compressedSink.cpuNanos);
+            RequestCompressionInterceptor.this.record(this.metricTags, uncompressedSink.bytes, compressedSink.bytes, cpuNanos);
+        }
+    }
+
+    private void record(MetricTags metricTags, long uncompressedBytes, long compressedBytes, long cpuNanos) {
+        this.compressionMetrics.recordCompressed(uncompressedBytes, compressedBytes, cpuNanos);
+        this.metricsRegistry.recordLatency(MetricNames.REQUEST_COMPRESSION, metricTags, cpuNanos);
+        this.metricsRegistry.increment(MetricNames.REQUEST_BYTES_UNCOMPRESSED, metricTags, uncompressedBytes);
+        this.metricsRegistry.increment(MetricNames.REQUEST_BYTES_COMPRESSED, metricTags, compressedBytes);
+    }
+
+    /**
+     * Counts the bytes written to the delegate and the thread CPU time spent in it
+     * (wall time where the JVM does not measure thread CPU time).
+     */
+    private static class CpuTimingSink extends ForwardingSink {
+        private long bytes;
+        private long cpuNanos;
+
+        CpuTimingSink(Sink delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            long start = currentThreadCpuTime();
+            try {
+                super.write(source, byteCount);
+                this.bytes += byteCount;
+            } finally {
+                this.cpuNanos += currentThreadCpuTime() - start;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            long start = currentThreadCpuTime();
+            try {
+                super.flush();
+            } finally {
+                this.cpuNanos += currentThreadCpuTime() - start;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            long start = currentThreadCpuTime();
+            try {
+                super.close();
+            } finally {
+                this.cpuNanos += currentThreadCpuTime() - start;
+            }
+        }
+    }
+
+    private static long currentThreadCpuTime() {
+        if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+            long cpuTime = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+            if (cpuTime != -1) {
+                return cpuTime;
+            }
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Stops writing the body into the buffer once it reaches minSize bytes.
+     */
+    private static class MinSizeReachedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        MinSizeReachedException() {
+            super("Request body reached the compression threshold");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.okhttp.download;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+
+/**
+ * Result of a download.
+ *
+ * target: downloaded file (null for a channel target)
+ * checksum: hex checksum of the content (null without checksumAlgorithm)
+ */
+@Data
+public class DownloadResult {
+    private final Path target;
+    private final long bytes;
+    private final String checksum;
+    private final long elapsedNanos;
+}
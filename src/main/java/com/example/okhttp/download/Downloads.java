@@ -0,0 +1,188 @@
+package com.example.okhttp.download;
+
+import com.example.okhttp.io.ProgressListener;
+import com.example.okhttp.model.DownloadOption;
+import okhttp3.Call;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * Streams response bodies into files and channels without materialising them on the heap.
+ * The body is copied from Okio's segments into one reused direct buffer of transferSize bytes,
+ * which is written with a single (positional) channel write per chunk.
+ * FileChannel.transferFrom is not used: from a socket-backed source it copies through an 8 KiB heap buffer.
+ */
+public final class Downloads {
+    private Downloads() {
+    }
+
+    /**
+     * Download the response body of the call into the target file.
+     * With downloadOption.atomic the body goes to a temp file in the same directory which replaces the target when complete.
+     */
+    public static DownloadResult download(Call call, Path target, DownloadOption downloadOption) throws IOException {
+        long start = System.nanoTime();
+        Path directory = target.toAbsolutePath().getParent();
+        Path file = downloadOption.isAtomic()
+                ? Files.createTempFile(directory, target.getFileName().toString() + ".", ".part")
+                : target;
+
+        try (Response response = call.execute()) {
+            ResponseBody responseBody = checkSuccessful(response);
+            MessageDigest digest = messageDigest(downloadOption);
+
+            long bytes;
+            try (FileChannel fileChannel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                bytes = transfer(responseBody.source(), fileChannel, 0, responseBody.contentLength(),
+                        transferBuffer(downloadOption), digest, downloadOption.getProgressListener());
+                if (downloadOption.isAtomic()) {
+                    fileChannel.force(true);
+                }
+            }
+
+            String checksum = verifyChecksum(digest, downloadOption);
+            if (downloadOption.isAtomic()) {
+                move(file, target);
+            }
+            return new DownloadResult(target, bytes, checksum, System.nanoTime() - start);
+        } catch (IOException | RuntimeException e) {
+            if (downloadOption.isAtomic()) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Download the response body of the call into the channel. The channel is not closed.
+     */
+    public static DownloadResult download(Call call, WritableByteChannel channel, DownloadOption downloadOption) throws IOException {
+        long start = System.nanoTime();
+        try (Response response = call.execute()) {
+            ResponseBody responseBody = checkSuccessful(response);
+            MessageDigest digest = messageDigest(downloadOption);
+
+            long bytes = transfer(responseBody.source(), channel, -1, responseBody.contentLength(),
+                    transferBuffer(downloadOption), digest, downloadOption.getProgressListener());
+
+            return new DownloadResult(null, bytes, verifyChecksum(digest, downloadOption), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Copy the source into the target until the end of the source.
+     *
+     * @param position position of positional FileChannel writes, -1 to write sequentially
+     * @param contentLength reported to the progressListener (-1 if unknown)
+     * @param buffer reused direct buffer, one channel write per full buffer
+     * @param digest updated with the copied bytes (nullable)
+     * @param progressListener nullable
+     * @return bytes copied
+     */
+    static long transfer(ReadableByteChannel source, WritableByteChannel target, long position, long contentLength,
+                         ByteBuffer buffer, MessageDigest digest, ProgressListener progressListener) throws IOException {
+        long bytesTransferred = 0;
+        buffer.clear();
+        while (true) {
+            int read = source.read(buffer);
+            if (read != -1 && buffer.hasRemaining()) {
+                continue;
+            }
+
+            buffer.flip();
+            int length = buffer.remaining();
+            if (digest != null) {
+                digest.update(buffer);
+                buffer.rewind();
+            }
+            while (buffer.hasRemaining()) {
+                if (position >= 0) {
+                    ((FileChannel) target).write(buffer, position + bytesTransferred + buffer.position());
+                } else {
+                    target.write(buffer);
+                }
+            }
+            buffer.clear();
+
+            bytesTransferred += length;
+            if (progressListener != null && (length > 0 || read == -1)) {
+                progressListener.onProgress(bytesTransferred, contentLength);
+            }
+            if (read == -1) {
+                return bytesTransferred;
+            }
+        }
+    }
+
+    static ByteBuffer transferBuffer(DownloadOption downloadOption) {
+        int transferSize = downloadOption.getTransferSize() > 0 ? downloadOption.getTransferSize() : DownloadOption.DEFAULT_TRANSFER_SIZE;
+        return ByteBuffer.allocateDirect(transferSize);
+    }
+
+    static ResponseBody checkSuccessful(Response response) throws IOException {
+        ResponseBody responseBody = Objects.requireNonNull(response.body());
+
+        // Response Status Check
+        if (!response.isSuccessful()) {
+            throw new RuntimeException("Response is not successful. " + response.code() + " " + responseBody.string());
+        }
+        return responseBody;
+    }
+
+    static MessageDigest messageDigest(DownloadOption downloadOption) {
+        if (downloadOption.getChecksumAlgorithm() == null) {
+            return null;
+        }
+
+        try {
+            return MessageDigest.getInstance(downloadOption.getChecksumAlgorithm());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static String verifyChecksum(MessageDigest digest, DownloadOption downloadOption) throws IOException {
+        if (digest == null) {
+            return null;
+        }
+
+        String checksum = toHex(digest.digest());
+        String expectedChecksum = downloadOption.getExpectedChecksum();
+        if (expectedChecksum != null && !expectedChecksum.equalsIgnoreCase(checksum)) {
+            throw new IOException("Checksum mismatch. expected: " + expectedChecksum + ", actual: " + checksum);
+        }
+        return checksum;
+    }
+
+    static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] hexDigits = "0123456789abcdef".toCharArray();
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(hexDigits[(b >> 4) & 0xf]).append(hexDigits[b & 0xf]);
+        }
+        return hex.toString();
+    }
+}
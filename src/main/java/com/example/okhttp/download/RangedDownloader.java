@@ -0,0 +1,290 @@
+package com.example.okhttp.download;
+
+import com.example.okhttp.model.DownloadOption;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Segmented download. A HEAD request probes Accept-Ranges and Content-Length (Accept-Encoding: identity, else
+ * OkHttp asks for gzip and Content-Length would be the compressed size), the resource is split into segmentCount
+ * byte ranges fetched concurrently (one thread per segment, client connection pool), and every range is
+ * written into its own region of the pre-allocated file with positional FileChannel writes.
+ * A failed segment (I/O error, 5xx, 408 or 429) is retried on its own, resuming from its last written byte.
+ * If-Range (ETag or Last-Modified) makes every segment come from the same version of the resource.
+ * Falls back to a single stream when the server does not accept ranges or the resource is too small to split.
+ */
+public final class RangedDownloader {
+    private static final Logger log = LoggerFactory.getLogger(RangedDownloader.class);
+
+    private final OkHttpClient okHttpClient;
+    private final Request request;
+    private final DownloadOption downloadOption;
+    private final long contentLength;
+    private final String validator;
+    private final Set<Call> calls = ConcurrentHashMap.newKeySet();
+    private long bytesTransferred;
+    private volatile boolean failed;
+    private volatile Exception failure;
+
+    private RangedDownloader(OkHttpClient okHttpClient, Request request, DownloadOption downloadOption,
+                             long contentLength, String validator) {
+        this.okHttpClient = okHttpClient;
+        this.request = request;
+        this.downloadOption = downloadOption;
+        this.contentLength = contentLength;
+        this.validator = validator;
+    }
+
+    /**
+     * Download the GET request into the target file with up to downloadOption.segmentCount concurrent ranges.
+     */
+    public static DownloadResult download(OkHttpClient okHttpClient, Request request, Path target, DownloadOption downloadOption) throws IOException {
+        long start = System.nanoTime();
+
+        // Probe
+        long contentLength = -1;
+        String validator = null;
+        boolean acceptRanges = false;
+        try (Response response = okHttpClient.newCall(request.newBuilder().head().header("Accept-Encoding", "identity").build()).execute()) {
+            if (response.isSuccessful()) {
+                acceptRanges = "bytes".equalsIgnoreCase(response.header("Accept-Ranges"));
+                contentLength = parseLong(response.header("Content-Length"));
+                validator = validator(response);
+            }
+        }
+
+        long minSegmentSize = Math.max(1, downloadOption.getMinSegmentSize());
+        int segmentCount = (int) Math.min(downloadOption.getSegmentCount(), (contentLength + minSegmentSize - 1) / minSegmentSize);
+        if (!acceptRanges || segmentCount < 2) {
+            log.debug("Ranged download not possible for {} (Accept-Ranges: {}, Content-Length: {}), using a single stream",
+                    request.url(), acceptRanges, contentLength);
+            return Downloads.download(okHttpClient.newCall(request), target, downloadOption);
+        }
+
+        Path file = downloadOption.isAtomic()
+                ? Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString() + ".", ".part")
+                : target;
+        try {
+            String checksum;
+            try (FileChannel fileChannel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                // pre-allocate, segments write into their own region
+                fileChannel.write(ByteBuffer.allocate(1), contentLength - 1);
+
+                // segments block on execute(): not on the Dispatcher executor, which runs the enqueued calls
+                ExecutorService executorService = newExecutorService(segmentCount);
+                try {
+                    new RangedDownloader(okHttpClient, request, downloadOption, contentLength, validator)
+                            .run(fileChannel, segmentCount, executorService);
+                } finally {
+                    executorService.shutdownNow();
+                }
+
+                checksum = checksum(fileChannel, downloadOption);
+                if (downloadOption.isAtomic()) {
+                    fileChannel.force(true);
+                }
+            }
+
+            if (downloadOption.isAtomic()) {
+                Downloads.move(file, target);
+            }
+            return new DownloadResult(target, contentLength, checksum, System.nanoTime() - start);
+        } catch (IOException | RuntimeException e) {
+            if (downloadOption.isAtomic()) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+    }
+
+    private void run(FileChannel fileChannel, int segmentCount, Executor executor) throws IOException {
+        long segmentSize = (this.contentLength + segmentCount - 1) / segmentCount;
+        List<CompletableFuture<Void>> segments = new ArrayList<>(segmentCount);
+        for (long start = 0; start < this.contentLength; start += segmentSize) {
+            long first = start;
+            long last = Math.min(this.contentLength, start + segmentSize) - 1;
+            segments.add(CompletableFuture.runAsync(() -> {
+                try {
+                    this.fetch(fileChannel, first, last);
+                } catch (IOException e) {
+                    this.fail(e);
+                    throw new UncheckedIOException(e);
+                } catch (RuntimeException e) {
+                    this.fail(e);
+                    throw e;
+                }
+            }, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(segments.toArray(new CompletableFuture<?>[0])).get();
+        } catch (InterruptedException e) {
+            this.cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while downloading " + this.request.url());
+        } catch (ExecutionException e) {
+            // the first failure, the other segments were canceled because of it
+            Throwable cause = this.failure != null ? this.failure : e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Fetch bytes first..last (inclusive) into the file, retrying from the last written byte.
+     */
+    private void fetch(FileChannel fileChannel, long first, long last) throws IOException {
+        ByteBuffer buffer = Downloads.transferBuffer(this.downloadOption);
+        long position = first;
+        int retryCount = 0;
+
+        while (true) {
+            if (this.failed) {
+                throw new IOException("Canceled");
+            }
+
+            Request.Builder requestBuilder = this.request.newBuilder()
+                    .header("Range", "bytes=" + position + "-" + last);
+            if (this.validator != null) {
+                requestBuilder.header("If-Range", this.validator);
+            }
+
+            Call call = this.okHttpClient.newCall(requestBuilder.build());
+            this.calls.add(call);
+            if (this.failed) {
+                call.cancel();
+            }
+            long[] written = {0};
+            try (Response response = call.execute()) {
+                // retried like a broken connection, from the last written byte
+                if (response.code() >= 500 || response.code() == 408 || response.code() == 429) {
+                    throw new IOException("Segment " + position + "-" + last + " was answered with " + response.code());
+                }
+                ResponseBody responseBody = Downloads.checkSuccessful(response);
+                if (response.code() != 206) {
+                    throw new RuntimeException("Range request was answered with " + response.code()
+                            + ", the resource may have changed. " + this.request.url());
+                }
+
+                Downloads.transfer(responseBody.source(), fileChannel, position, this.contentLength, buffer, null,
+                        (bytes, contentLength) -> {
+                            this.onProgress(bytes - written[0]);
+                            written[0] = bytes;
+                        });
+                if (position + written[0] != last + 1) {
+                    throw new IOException("Segment ended early at " + (position + written[0]) + " of " + first + "-" + last);
+                }
+                return;
+            } catch (IOException e) {
+                position += written[0];
+                if (this.failed || retryCount >= this.downloadOption.getSegmentRetryCount()) {
+                    throw e;
+                }
+                retryCount++;
+                log.warn("Segment {}-{} of {} failed at {}, retry {}/{}. {}",
+                        first, last, this.request.url(), position, retryCount, this.downloadOption.getSegmentRetryCount(), e.toString());
+            } finally {
+                this.calls.remove(call);
+            }
+        }
+    }
+
+    private synchronized void onProgress(long bytes) {
+        this.bytesTransferred += bytes;
+        if (this.downloadOption.getProgressListener() != null && bytes > 0) {
+            this.downloadOption.getProgressListener().onProgress(this.bytesTransferred, this.contentLength);
+        }
+    }
+
+    /**
+     * One failed segment cancels the others.
+     */
+    private synchronized void fail(Exception e) {
+        if (this.failure == null) {
+            this.failure = e;
+        }
+        this.cancel();
+    }
+
+    private void cancel() {
+        this.failed = true;
+        this.calls.forEach(Call::cancel);
+    }
+
+    private static String checksum(FileChannel fileChannel, DownloadOption downloadOption) throws IOException {
+        MessageDigest digest = Downloads.messageDigest(downloadOption);
+        if (digest == null) {
+            return null;
+        }
+
+        // segments arrive out of order, so the file is read back once
+        ByteBuffer buffer = Downloads.transferBuffer(downloadOption);
+        long position = 0;
+        int read;
+        while ((read = fileChannel.read(buffer, position)) != -1) {
+            position += read;
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+        return Downloads.verifyChecksum(digest, downloadOption);
+    }
+
+    private static String validator(Response response) {
+        // If-Range needs a strong validator
+        String eTag = response.header("ETag");
+        if (eTag != null && !eTag.startsWith("W/")) {
+            return eTag;
+        }
+        return response.header("Last-Modified");
+    }
+
+    private static ExecutorService newExecutorService(int segmentCount) {
+        return Executors.newFixedThreadPool(segmentCount, runnable -> {
+            Thread thread = new Thread(runnable, "ranged-download");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return value != null ? Long.parseLong(value) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
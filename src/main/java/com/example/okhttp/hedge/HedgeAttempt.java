@@ -0,0 +1,23 @@
+package com.example.okhttp.hedge;
+
+import okhttp3.Request;
+
+/**
+ * Request tag of the hedge (second attempt) of a hedged call.
+ * Interceptors that share responses between identical requests must not apply to it, or it would wait for the
+ * slow first attempt it is meant to overtake.
+ */
+public final class HedgeAttempt {
+    private static final HedgeAttempt INSTANCE = new HedgeAttempt();
+
+    private HedgeAttempt() {
+    }
+
+    public static Request tag(Request request) {
+        return request.newBuilder().tag(HedgeAttempt.class, INSTANCE).build();
+    }
+
+    public static boolean isHedge(Request request) {
+        return request.tag(HedgeAttempt.class) != null;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.okhttp.hedge;
+
+import com.example.okhttp.model.HedgingOption;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedged requests for idempotent calls.
+ * The first attempt starts immediately; if it has not completed after the hedge delay, a second attempt is started
+ * (the load balancer or connection pool routes it to another node or connection). The first success wins and the
+ * other attempt is cancelled. A failure only fails the call when no other attempt is still running.
+ */
+public class HedgingExecutor {
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "okhttp-hedging-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final int maxHedgePercent;
+    private final int minSamples;
+    private final LatencyTracker latencyTracker;
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder hedgeCount = new LongAdder();
+    private final LongAdder hedgeWinCount = new LongAdder();
+
+    public HedgingExecutor(HedgingOption hedgingOption) {
+        this.minDelayNanos = hedgingOption.getTimeUnit().toNanos(hedgingOption.getMinDelay());
+        this.maxDelayNanos = hedgingOption.getTimeUnit().toNanos(hedgingOption.getMaxDelay());
+        this.maxHedgePercent = hedgingOption.getMaxHedgePercent();
+        this.minSamples = hedgingOption.getMinSamples();
+        this.latencyTracker = new LatencyTracker(hedgingOption.getSampleSize(), hedgingOption.getPercentile());
+    }
+
+    @FunctionalInterface
+    public interface Attempt<R> {
+        /**
+         *
+         * @param hedge true for the hedge (second attempt), whose request should be tagged with {@link HedgeAttempt}
+         * @return the attempt; cancelling it must cancel its call
+         */
+        CompletableFuture<R> start(boolean hedge);
+    }
+
+    /**
+     *
+     * @param attempt starts a new attempt
+     */
+    public <R> CompletableFuture<R> execute(Attempt<R> attempt) {
+        this.requestCount.increment();
+
+        HedgedCall<R> hedgedCall = new HedgedCall<>(attempt);
+        hedgedCall.start(false);
+
+        ScheduledFuture<?> timer = SCHEDULER.schedule(() -> {
+            if (hedgedCall.isPending() && this.tryAcquireHedge()) {
+                hedgedCall.start(true);
+            }
+        }, this.getHedgeDelay(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+
+        hedgedCall.result.whenComplete((result, throwable) -> {
+            timer.cancel(false);
+            hedgedCall.cancelAll();
+        });
+        return hedgedCall.result;
+    }
+
+    /**
+     * Current delay before a hedge is sent.
+     */
+    public long getHedgeDelay(TimeUnit timeUnit) {
+        long percentileNanos = this.latencyTracker.getPercentileNanos();
+        long delayNanos = this.latencyTracker.getCount() < this.minSamples || percentileNanos < 0
+                ? this.maxDelayNanos
+                : Math.max(this.minDelayNanos, Math.min(this.maxDelayNanos, percentileNanos));
+        return timeUnit.convert(delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getRequestCount() {
+        return this.requestCount.sum();
+    }
+
+    public long getHedgeCount() {
+        return this.hedgeCount.sum();
+    }
+
+    /**
+     * Calls answered by the hedge rather than by the first attempt.
+     */
+    public long getHedgeWinCount() {
+        return this.hedgeWinCount.sum();
+    }
+
+    private boolean tryAcquireHedge() {
+        if (this.hedgeCount.sum() * 100 >= this.requestCount.sum() * this.maxHedgePercent) {
+            return false;
+        }
+        this.hedgeCount.increment();
+        return true;
+    }
+
+    private class HedgedCall<R> {
+        private final Attempt<R> attempt;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+
+        private CompletableFuture<R> primary;
+        private CompletableFuture<R> hedge;
+        private int running;
+
+        HedgedCall(Attempt<R> attempt) {
+            this.attempt = attempt;
+        }
+
+        void start(boolean isHedge) {
+            long startNanos = System.nanoTime();
+            CompletableFuture<R> future;
+            synchronized (this) {
+                if (this.result.isDone()) {
+                    return;
+                }
+                this.running++;
+                future = this.attempt.start(isHedge);
+                if (isHedge) {
+                    this.hedge = future;
+                } else {
+                    this.primary = future;
+                }
+            }
+
+            future.whenComplete((value, throwable) -> this.onComplete(isHedge, startNanos, value, throwable));
+        }
+
+        synchronized boolean isPending() {
+            return !this.result.isDone();
+        }
+
+        void cancelAll() {
+            CompletableFuture<R> primary;
+            CompletableFuture<R> hedge;
+            synchronized (this) {
+                primary = this.primary;
+                hedge = this.hedge;
+            }
+            if (primary != null) {
+                primary.cancel(true);
+            }
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+
+        private void onComplete(boolean isHedge, long startNanos, R value, Throwable throwable) {
+            boolean completeExceptionally;
+            synchronized (this) {
+                this.running--;
+                completeExceptionally = throwable != null && this.running == 0;
+            }
+
+            if (throwable instanceof CancellationException && !isHedge) {
+                // the first attempt lost against the hedge: it was at least this slow
+                latencyTracker.record(System.nanoTime() - startNanos);
+            }
+
+            if (throwable == null) {
+                latencyTracker.record(System.nanoTime() - startNanos);
+                if (this.result.complete(value) && isHedge) {
+                    hedgeWinCount.increment();
+                }
+            } else if (completeExceptionally) {
+                this.result.completeExceptionally(throwable);
+            }
+        }
+    }
+}
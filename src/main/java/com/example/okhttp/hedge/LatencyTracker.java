@@ -0,0 +1,56 @@
+package com.example.okhttp.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ring buffer of the most recent latencies.
+ * The percentile is recomputed every sampleSize / 10 recordings, not on every read.
+ */
+class LatencyTracker {
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+    private final double percentile;
+    private final int refreshInterval;
+
+    private volatile long percentileNanos = -1;
+
+    LatencyTracker(int sampleSize, double percentile) {
+        this.samples = new AtomicLongArray(sampleSize);
+        this.percentile = percentile;
+        this.refreshInterval = Math.max(1, sampleSize / 10);
+    }
+
+    void record(long latencyNanos) {
+        long n = this.count.getAndIncrement();
+        this.samples.set((int) (n % this.samples.length()), latencyNanos);
+
+        if ((n + 1) % this.refreshInterval == 0) {
+            this.refresh();
+        }
+    }
+
+    long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Latency at the configured percentile, or -1 before the first refresh.
+     */
+    long getPercentileNanos() {
+        return this.percentileNanos;
+    }
+
+    private void refresh() {
+        int size = (int) Math.min(this.count.get(), this.samples.length());
+        long[] snapshot = new long[size];
+        for (int i = 0; i < size; i++) {
+            snapshot[i] = this.samples.get(i);
+        }
+        Arrays.sort(snapshot);
+
+        int index = (int) Math.ceil(this.percentile / 100.0 * size) - 1;
+        this.percentileNanos = snapshot[Math.max(0, Math.min(size - 1, index))];
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.okhttp.http2;
+
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Network interceptor measuring how deep HTTP/2 connections are multiplexed (concurrent streams per connection).
+ * A stream counts as open until its response body is closed or exhausted.
+ *
+ * It only observes: OkHttp opens streams up to the SETTINGS_MAX_CONCURRENT_STREAMS of the server, and the number of
+ * concurrent calls per host is bounded by DispatcherOption.maxRequestsPerHost.
+ */
+public class MultiplexingInterceptor implements Interceptor {
+    private final ConcurrentMap<Connection, ConnectionStreams> connections = new ConcurrentHashMap<>();
+
+    private final LongAdder http2StreamCount = new LongAdder();
+    private final LongAdder http1RequestCount = new LongAdder();
+    private final LongAdder depthSum = new LongAdder();
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+
+    public MultiplexingMetrics getMetrics() {
+        int activeStreams = 0;
+        for (ConnectionStreams connectionStreams : this.connections.values()) {
+            activeStreams += connectionStreams.open.get();
+        }
+
+        long streamCount = this.http2StreamCount.sum();
+        return new MultiplexingMetrics(
+                streamCount,
+                this.http1RequestCount.sum(),
+                this.connections.size(),
+                activeStreams,
+                (int) this.maxDepth.get(),
+                streamCount > 0 ? (double) this.depthSum.sum() / streamCount : 0);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Connection connection = chain.connection();
+        if (connection == null || connection.protocol() == Protocol.HTTP_1_1 || connection.protocol() == Protocol.HTTP_1_0) {
+            this.http1RequestCount.increment();
+            return chain.proceed(chain.request());
+        }
+
+        ConnectionStreams connectionStreams = this.connections.compute(connection, (key, value) -> {
+            ConnectionStreams streams = value != null ? value : new ConnectionStreams();
+            streams.users.incrementAndGet();
+            return streams;
+        });
+
+        int depth = connectionStreams.open.incrementAndGet();
+        this.http2StreamCount.increment();
+        this.depthSum.add(depth);
+        this.maxDepth.accumulate(depth);
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable closeStream = () -> {
+            if (released.compareAndSet(false, true)) {
+                connectionStreams.open.decrementAndGet();
+                this.release(connection);
+            }
+        };
+
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            closeStream.run();
+            throw e;
+        }
+
+        ResponseBody responseBody = response.body();
+        if (responseBody == null) {
+            closeStream.run();
+            return response;
+        }
+
+        ForwardingSource source = new ForwardingSource(responseBody.source()) {
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                long read = super.read(sink, byteCount);
+                if (read == -1) {
+                    closeStream.run();
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                closeStream.run();
+                super.close();
+            }
+        };
+
+        return response.newBuilder()
+                .body(ResponseBody.create(Okio.buffer(source), responseBody.contentType(), responseBody.contentLength()))
+                .build();
+    }
+
+    private void release(Connection connection) {
+        this.connections.computeIfPresent(connection, (key, value) -> value.users.decrementAndGet() == 0 ? null : value);
+    }
+
+    private static final class ConnectionStreams {
+        private final AtomicInteger users = new AtomicInteger();
+        private final AtomicInteger open = new AtomicInteger();
+    }
+}
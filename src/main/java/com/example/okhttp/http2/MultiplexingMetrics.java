@@ -0,0 +1,23 @@
+package com.example.okhttp.http2;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Snapshot of the multiplexing counters of a {@link MultiplexingInterceptor}.
+ *
+ * connectionCount: connections currently carrying at least one stream
+ * activeStreams: streams currently open over all connections
+ * maxStreamsPerConnection: highest number of concurrent streams seen on one connection
+ * averageStreamsPerConnection: average number of concurrent streams on the connection when a stream was opened
+ */
+@Data
+@AllArgsConstructor
+public class MultiplexingMetrics {
+    private long http2StreamCount;
+    private long http1RequestCount;
+    private int connectionCount;
+    private int activeStreams;
+    private int maxStreamsPerConnection;
+    private double averageStreamsPerConnection;
+}
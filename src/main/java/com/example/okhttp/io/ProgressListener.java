@@ -0,0 +1,13 @@
+package com.example.okhttp.io;
+
+/**
+ * Progress of a transfer, called once per transferred chunk and once at the end.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    /**
+     * @param bytesTransferred bytes transferred so far
+     * @param contentLength total bytes, -1 if unknown
+     */
+    void onProgress(long bytesTransferred, long contentLength);
+}
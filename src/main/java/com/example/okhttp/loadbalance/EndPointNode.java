@@ -0,0 +1,95 @@
+package com.example.okhttp.loadbalance;
+
+import com.example.okhttp.model.EndPoint;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One EndPoint of a {@link LoadBalancedEndPoint} with its live statistics.
+ * Latency is an exponentially weighted moving average; a node is excluded for ejectionDuration
+ * after failureThreshold consecutive failures.
+ */
+public class EndPointNode {
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final EndPoint endPoint;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+
+    private final AtomicInteger outstandingRequests = new AtomicInteger();
+    private final AtomicLong latencyEwmaNanos = new AtomicLong();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long excludedUntilNanos;
+
+    EndPointNode(EndPoint endPoint, int failureThreshold, long ejectionNanos) {
+        this.endPoint = endPoint;
+        this.failureThreshold = failureThreshold;
+        this.ejectionNanos = ejectionNanos;
+    }
+
+    public EndPoint getEndPoint() {
+        return this.endPoint;
+    }
+
+    public int getOutstandingRequests() {
+        return this.outstandingRequests.get();
+    }
+
+    /**
+     * EWMA latency (0 until the first call completes).
+     */
+    public long getLatency(TimeUnit timeUnit) {
+        return timeUnit.convert(this.latencyEwmaNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public int getConsecutiveFailures() {
+        return this.consecutiveFailures.get();
+    }
+
+    public boolean isAvailable() {
+        return System.nanoTime() - this.excludedUntilNanos >= 0;
+    }
+
+    void onStart() {
+        this.outstandingRequests.incrementAndGet();
+    }
+
+    void onComplete(long latencyNanos, boolean success) {
+        this.outstandingRequests.decrementAndGet();
+        this.latencyEwmaNanos.accumulateAndGet(latencyNanos,
+                (previous, current) -> previous == 0 ? current : (long) (previous + EWMA_ALPHA * (current - previous)));
+
+        if (success) {
+            this.consecutiveFailures.set(0);
+        } else if (this.consecutiveFailures.incrementAndGet() >= this.failureThreshold) {
+            this.consecutiveFailures.set(0);
+            this.excludedUntilNanos = System.nanoTime() + this.ejectionNanos;
+        }
+    }
+
+    /**
+     * A canceled call (hedge loser, user cancel) says nothing about the node: neither latency nor failure is recorded.
+     */
+    void onCanceled() {
+        this.outstandingRequests.decrementAndGet();
+    }
+
+    /**
+     * Lower is better: expected wait when joining this node's queue.
+     */
+    long getScore() {
+        return (this.outstandingRequests.get() + 1L) * Math.max(1, this.latencyEwmaNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "EndPointNode{" +
+                "url=" + this.endPoint.getUrl() +
+                ", outstandingRequests=" + this.getOutstandingRequests() +
+                ", latencyMillis=" + this.getLatency(TimeUnit.MILLISECONDS) +
+                ", available=" + this.isAvailable() +
+                '}';
+    }
+}
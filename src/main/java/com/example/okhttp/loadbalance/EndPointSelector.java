@@ -0,0 +1,16 @@
+package com.example.okhttp.loadbalance;
+
+import java.util.List;
+
+/**
+ * Load balancing strategy (SPI).
+ * Implementations must be thread-safe.
+ */
+public interface EndPointSelector {
+    /**
+     *
+     * @param nodes available nodes (never empty)
+     * @return the node to send the next request to
+     */
+    EndPointNode select(List<EndPointNode> nodes);
+}
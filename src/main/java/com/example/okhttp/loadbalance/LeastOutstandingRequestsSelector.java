@@ -0,0 +1,25 @@
+package com.example.okhttp.loadbalance;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the node with the fewest in-flight requests.
+ * The scan starts at a random offset so ties do not always go to the first node.
+ */
+public class LeastOutstandingRequestsSelector implements EndPointSelector {
+    @Override
+    public EndPointNode select(List<EndPointNode> nodes) {
+        int size = nodes.size();
+        int offset = ThreadLocalRandom.current().nextInt(size);
+
+        EndPointNode selected = null;
+        for (int i = 0; i < size; i++) {
+            EndPointNode node = nodes.get((offset + i) % size);
+            if (selected == null || node.getOutstandingRequests() < selected.getOutstandingRequests()) {
+                selected = node;
+            }
+        }
+        return selected;
+    }
+}
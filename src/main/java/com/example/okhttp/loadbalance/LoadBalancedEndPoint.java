@@ -0,0 +1,77 @@
+package com.example.okhttp.loadbalance;
+
+import com.example.okhttp.model.EndPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * EndPoint spreading requests over several nodes.
+ * URLs are built from the first EndPoint (protocol, host, port, basePath); every request is then
+ * rewritten to the protocol, host and port of the node chosen by the {@link EndPointSelector}.
+ * All nodes are therefore expected to share the same basePath.
+ *
+ * If every node is excluded, all nodes are used again (fail open).
+ */
+public class LoadBalancedEndPoint extends EndPoint {
+    public final static int DEFAULT_FAILURE_THRESHOLD = 3;
+    public final static long DEFAULT_EJECTION_DURATION = 10000;
+    public final static TimeUnit DEFAULT_TIME_UNIT = TimeUnit.MILLISECONDS;
+
+    private final List<EndPointNode> nodes;
+    private final EndPointSelector endPointSelector;
+
+    public LoadBalancedEndPoint(List<EndPoint> endPoints) {
+        this(endPoints, new PowerOfTwoChoicesSelector());
+    }
+
+    public LoadBalancedEndPoint(List<EndPoint> endPoints, EndPointSelector endPointSelector) {
+        this(endPoints, endPointSelector, DEFAULT_FAILURE_THRESHOLD, DEFAULT_EJECTION_DURATION, DEFAULT_TIME_UNIT);
+    }
+
+    /**
+     *
+     * @param endPoints nodes (at least one)
+     * @param endPointSelector load balancing strategy
+     * @param failureThreshold consecutive failures (IOException or 5xx) before a node is excluded
+     * @param ejectionDuration how long a failing node is excluded
+     * @param timeUnit time unit of ejectionDuration
+     */
+    public LoadBalancedEndPoint(List<EndPoint> endPoints, EndPointSelector endPointSelector,
+                                int failureThreshold, long ejectionDuration, TimeUnit timeUnit) {
+        super(endPoints.get(0).getProtocol(), endPoints.get(0).getHost(), endPoints.get(0).getPort(), endPoints.get(0).getBasePath());
+        this.setUsername(endPoints.get(0).getUsername());
+        this.setPassword(endPoints.get(0).getPassword());
+        this.setHttpVersion(endPoints.get(0).getHttpVersion());
+
+        long ejectionNanos = timeUnit.toNanos(ejectionDuration);
+        List<EndPointNode> nodes = new ArrayList<>(endPoints.size());
+        for (EndPoint endPoint : endPoints) {
+            nodes.add(new EndPointNode(endPoint, failureThreshold, ejectionNanos));
+        }
+        this.nodes = Collections.unmodifiableList(nodes);
+        this.endPointSelector = endPointSelector;
+    }
+
+    /**
+     * Nodes with their live statistics.
+     */
+    public List<EndPointNode> getNodes() {
+        return this.nodes;
+    }
+
+    public EndPointSelector getEndPointSelector() {
+        return this.endPointSelector;
+    }
+
+    public EndPointNode select() {
+        List<EndPointNode> availableNodes = this.nodes.stream()
+                .filter(EndPointNode::isAvailable)
+                .collect(Collectors.toList());
+
+        return this.endPointSelector.select(availableNodes.isEmpty() ? this.nodes : availableNodes);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.okhttp.loadbalance;
+
+import com.example.okhttp.model.EndPoint;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * Application interceptor sending each request (and each retry) to a node of the {@link LoadBalancedEndPoint}.
+ * Latency is measured up to the response headers. Canceled calls are not counted as node failures.
+ */
+public class LoadBalancingInterceptor implements Interceptor {
+    private final LoadBalancedEndPoint loadBalancedEndPoint;
+
+    public LoadBalancingInterceptor(LoadBalancedEndPoint loadBalancedEndPoint) {
+        this.loadBalancedEndPoint = loadBalancedEndPoint;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        EndPointNode node = this.loadBalancedEndPoint.select();
+        EndPoint endPoint = node.getEndPoint();
+
+        Request request = chain.request();
+        HttpUrl url = request.url().newBuilder()
+                .scheme(endPoint.getProtocol())
+                .host(endPoint.getHost())
+                .port(endPoint.getPort())
+                .build();
+
+        node.onStart();
+        long startNanos = System.nanoTime();
+        try {
+            Response response = chain.proceed(request.newBuilder().url(url).build());
+            node.onComplete(System.nanoTime() - startNanos, response.code() < 500);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            if (chain.call().isCanceled()) {
+                node.onCanceled();
+            } else {
+                node.onComplete(System.nanoTime() - startNanos, false);
+            }
+            throw e;
+        }
+    }
+}
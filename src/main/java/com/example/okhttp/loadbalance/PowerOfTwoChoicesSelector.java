@@ -0,0 +1,29 @@
+package com.example.okhttp.loadbalance;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks two random nodes and keeps the one with the lower (outstanding requests + 1) * EWMA latency,
+ * so a slow node stops attracting traffic without herding onto a single "best" node.
+ */
+public class PowerOfTwoChoicesSelector implements EndPointSelector {
+    @Override
+    public EndPointNode select(List<EndPointNode> nodes) {
+        int size = nodes.size();
+        if (size == 1) {
+            return nodes.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        EndPointNode a = nodes.get(first);
+        EndPointNode b = nodes.get(second);
+        return a.getScore() <= b.getScore() ? a : b;
+    }
+}
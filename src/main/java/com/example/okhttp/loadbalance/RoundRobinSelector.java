@@ -0,0 +1,13 @@
+package com.example.okhttp.loadbalance;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RoundRobinSelector implements EndPointSelector {
+    private final AtomicInteger index = new AtomicInteger();
+
+    @Override
+    public EndPointNode select(List<EndPointNode> nodes) {
+        return nodes.get(Math.floorMod(this.index.getAndIncrement(), nodes.size()));
+    }
+}
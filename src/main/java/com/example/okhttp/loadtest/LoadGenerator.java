@@ -0,0 +1,210 @@
+package com.example.okhttp.loadtest;
+
+import com.example.okhttp.HttpClient;
+import com.example.okhttp.metrics.Histogram;
+import com.example.okhttp.model.LoadTestOption;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Drives any {@link HttpClient} at a fixed arrival rate (open loop) or at a fixed concurrency (closed loop)
+ * and reports throughput, errors and latency percentiles.
+ * After the measured duration, calls still in flight are awaited for up to {@link #DRAIN_TIMEOUT_MILLIS};
+ * those still running then are reported as unfinished and no longer recorded.
+ */
+public class LoadGenerator<T> {
+    public final static long DRAIN_TIMEOUT_MILLIS = 60000;
+
+    /**
+     * One request of the load test; an exception counts as an error.
+     */
+    @FunctionalInterface
+    public interface LoadTestCall<T> {
+        void call(HttpClient<T> httpClient) throws Exception;
+    }
+
+    private final HttpClient<T> httpClient;
+    private final LoadTestCall<T> loadTestCall;
+    private final LoadTestOption loadTestOption;
+
+    private final Histogram histogram = new Histogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicInteger running = new AtomicInteger();
+    // recording holds the read lock, the result the write lock: the result sees no half-recorded call
+    private final ReadWriteLock recordingLock = new ReentrantReadWriteLock();
+    private boolean stopped;
+
+    /**
+     *
+     * @param httpClient client under test
+     * @param loadTestCall request sent by every iteration (e.g. client -> client.callGetMethod("/block"))
+     * @param loadTestOption mode, rate or concurrency, warmup and duration
+     */
+    public LoadGenerator(HttpClient<T> httpClient, LoadTestCall<T> loadTestCall, LoadTestOption loadTestOption) {
+        this.httpClient = Objects.requireNonNull(httpClient);
+        this.loadTestCall = Objects.requireNonNull(loadTestCall);
+        this.loadTestOption = Objects.requireNonNull(loadTestOption);
+    }
+
+    public LoadTestResult run() throws InterruptedException {
+        TimeUnit timeUnit = this.loadTestOption.getTimeUnit();
+        long start = System.nanoTime();
+        long measureStart = start + timeUnit.toNanos(this.loadTestOption.getWarmup());
+        long end = measureStart + timeUnit.toNanos(this.loadTestOption.getDuration());
+
+        if (this.loadTestOption.getMode() == LoadTestOption.Mode.CLOSED_LOOP) {
+            this.runClosedLoop(measureStart, end);
+        } else {
+            this.runOpenLoop(start, measureStart, end);
+        }
+
+        return this.result(end - measureStart);
+    }
+
+    private void runOpenLoop(long start, long measureStart, long end) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, this.loadTestOption.getRatePerSecond());
+        Semaphore inFlight = new Semaphore(this.loadTestOption.getMaxConcurrency());
+        ExecutorService executorService = newExecutorService();
+
+        try {
+            for (long i = 0; ; i++) {
+                long intendedStart = start + i * intervalNanos;
+                if (intendedStart >= end) {
+                    break;
+                }
+
+                long waitNanos;
+                while ((waitNanos = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+
+                boolean measured = intendedStart >= measureStart;
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        this.dropped.increment();
+                    }
+                    continue;
+                }
+
+                executorService.execute(() -> {
+                    try {
+                        // latency from the intended start: time spent waiting behind slow calls counts
+                        this.callAndRecord(intendedStart, measured);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            executorService.shutdown();
+            executorService.awaitTermination(DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runClosedLoop(long measureStart, long end) throws InterruptedException {
+        ExecutorService executorService = newExecutorService();
+        List<Runnable> callers = new ArrayList<>();
+        for (int i = 0; i < this.loadTestOption.getConcurrency(); i++) {
+            callers.add(() -> {
+                long callStart;
+                while ((callStart = System.nanoTime()) < end) {
+                    this.callAndRecord(callStart, callStart >= measureStart);
+                }
+            });
+        }
+
+        try {
+            callers.forEach(executorService::execute);
+        } finally {
+            executorService.shutdown();
+            executorService.awaitTermination(TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()) + DRAIN_TIMEOUT_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void callAndRecord(long startNanos, boolean measured) {
+        if (measured) {
+            this.running.incrementAndGet();
+        }
+
+        boolean failed = false;
+        try {
+            this.loadTestCall.call(this.httpClient);
+        } catch (Exception e) {
+            failed = true;
+        }
+
+        if (measured) {
+            this.recordingLock.readLock().lock();
+            try {
+                // completed after the result was taken: already counted as unfinished
+                if (this.stopped) {
+                    return;
+                }
+                this.histogram.record(System.nanoTime() - startNanos);
+                this.requests.increment();
+                if (failed) {
+                    this.errors.increment();
+                }
+                this.running.decrementAndGet();
+            } finally {
+                this.recordingLock.readLock().unlock();
+            }
+        }
+    }
+
+    private LoadTestResult result(long measuredNanos) {
+        this.recordingLock.writeLock().lock();
+        try {
+            this.stopped = true;
+            return this.result(measuredNanos, this.requests.sum(), this.errors.sum(), this.running.get());
+        } finally {
+            this.recordingLock.writeLock().unlock();
+        }
+    }
+
+    private LoadTestResult result(long measuredNanos, long requests, long errors, long unfinished) {
+        long dropped = this.dropped.sum();
+        long failures = errors + dropped + unfinished;
+        long attempts = requests + dropped + unfinished;
+
+        LoadTestResult result = new LoadTestResult();
+        result.setMode(this.loadTestOption.getMode().name());
+        if (this.loadTestOption.getMode() == LoadTestOption.Mode.OPEN_LOOP) {
+            result.setTargetRatePerSecond(this.loadTestOption.getRatePerSecond());
+            result.setConcurrency(this.loadTestOption.getMaxConcurrency());
+        } else {
+            result.setConcurrency(this.loadTestOption.getConcurrency());
+        }
+        result.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(measuredNanos));
+        result.setRequests(requests);
+        result.setErrors(errors);
+        result.setDropped(dropped);
+        result.setUnfinished(unfinished);
+        result.setThroughputPerSecond(requests / (measuredNanos / 1_000_000_000.0));
+        result.setErrorRate(attempts > 0 ? (double) failures / attempts : 0);
+        result.setLatency(LoadTestResult.Latency.of(this.histogram.snapshot()));
+        return result;
+    }
+
+    private static ExecutorService newExecutorService() {
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "load-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
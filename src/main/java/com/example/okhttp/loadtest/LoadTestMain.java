@@ -0,0 +1,83 @@
+package com.example.okhttp.loadtest;
+
+import com.example.okhttp.OkHttpClientUtil;
+import com.example.okhttp.model.LoadTestOption;
+import okhttp3.HttpUrl;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line load test of {@link OkHttpClientUtil}; prints the {@link LoadTestResult} as JSON.
+ * Without --url a local {@link StubServer} is started and used as target.
+ *
+ * <pre>
+ * --mode=open|closed        (default: open)
+ * --rate=1000               requests per second (open loop)
+ * --concurrency=64          callers (closed loop)
+ * --max-concurrency=1000    calls in flight before arrivals are dropped (open loop)
+ * --warmup=5000 --duration=30000   milliseconds
+ * --url=http://host:port/path      target (default: stub server, path /)
+ * --latency=10 --jitter=0 --error-rate=0.0 --response-bytes=256   stub server
+ * --max-connections=200 --keep-alive=1000 --read-timeout=10000 --connect-timeout=10000   client under test
+ * </pre>
+ */
+public class LoadTestMain {
+    public static void main(String[] args) throws Exception {
+        Map<String, String> arguments = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg + " (expected --name=value)");
+            }
+            arguments.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        LoadTestOption loadTestOption = new LoadTestOption();
+        loadTestOption.setMode("closed".equals(arguments.getOrDefault("mode", "open").toLowerCase(Locale.ROOT))
+                ? LoadTestOption.Mode.CLOSED_LOOP
+                : LoadTestOption.Mode.OPEN_LOOP);
+        loadTestOption.setRatePerSecond(intArgument(arguments, "rate", LoadTestOption.DEFAULT_RATE_PER_SECOND));
+        loadTestOption.setConcurrency(intArgument(arguments, "concurrency", LoadTestOption.DEFAULT_CONCURRENCY));
+        loadTestOption.setMaxConcurrency(intArgument(arguments, "max-concurrency", LoadTestOption.DEFAULT_MAX_CONCURRENCY));
+        loadTestOption.setWarmup(intArgument(arguments, "warmup", (int) LoadTestOption.DEFAULT_WARMUP));
+        loadTestOption.setDuration(intArgument(arguments, "duration", (int) LoadTestOption.DEFAULT_DURATION));
+
+        StubServer stubServer = null;
+        HttpUrl url;
+        if (arguments.containsKey("url")) {
+            url = HttpUrl.get(arguments.get("url"));
+        } else {
+            stubServer = new StubServer(0,
+                    intArgument(arguments, "latency", 10),
+                    intArgument(arguments, "jitter", 0),
+                    Double.parseDouble(arguments.getOrDefault("error-rate", "0.0")),
+                    intArgument(arguments, "response-bytes", 256));
+            url = HttpUrl.get("http://localhost:" + stubServer.getPort() + "/");
+        }
+
+        try {
+            OkHttpClientUtil<?> okHttpClientUtil = OkHttpClientUtil.builder()
+                    .protocol(url.scheme())
+                    .host(url.host())
+                    .port(url.port())
+                    .setMaxConnectionCount(intArgument(arguments, "max-connections", OkHttpClientUtil.DEFAULT_MAX_CONNECT_COUNT))
+                    .setKeepAliveDuration(intArgument(arguments, "keep-alive", (int) OkHttpClientUtil.DEFAULT_KEEP_ALIVE_DURATION))
+                    .setReadTimeout(intArgument(arguments, "read-timeout", OkHttpClientUtil.DEFAULT_READ_TIMEOUT))
+                    .setConnectTimeout(intArgument(arguments, "connect-timeout", OkHttpClientUtil.DEFAULT_CONNECT_TIMEOUT))
+                    .build();
+
+            String path = url.encodedPath() + (url.encodedQuery() != null ? "?" + url.encodedQuery() : "");
+            LoadTestResult result = new LoadGenerator<>(okHttpClientUtil, httpClient -> httpClient.callGetMethod(path), loadTestOption).run();
+            System.out.println(result.toJson());
+        } finally {
+            if (stubServer != null) {
+                stubServer.close();
+            }
+        }
+    }
+
+    private static int intArgument(Map<String, String> arguments, String name, int defaultValue) {
+        return arguments.containsKey(name) ? Integer.parseInt(arguments.get(name)) : defaultValue;
+    }
+}
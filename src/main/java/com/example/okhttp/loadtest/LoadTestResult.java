@@ -0,0 +1,57 @@
+package com.example.okhttp.loadtest;
+
+import com.example.okhttp.metrics.HistogramSnapshot;
+import com.google.gson.GsonBuilder;
+import lombok.Data;
+
+/**
+ * Outcome of a load test run. Latencies are in milliseconds.
+ *
+ * requests: measured calls that completed (successfully or not), the latency sample
+ * dropped: open-loop arrivals not sent because maxConcurrency calls were in flight
+ * unfinished: measured calls still running when the run gave up waiting for them
+ * errorRate: (errors + dropped + unfinished) / (requests + dropped + unfinished), so shed load is not hidden
+ */
+@Data
+public class LoadTestResult {
+    private String mode;
+    private int targetRatePerSecond;
+    private int concurrency;
+    private long durationMillis;
+    private long requests;
+    private long errors;
+    private long dropped;
+    private long unfinished;
+    private double throughputPerSecond;
+    private double errorRate;
+    private Latency latency;
+
+    @Data
+    public static class Latency {
+        private double mean;
+        private double p50;
+        private double p90;
+        private double p99;
+        private double p999;
+        private double max;
+
+        static Latency of(HistogramSnapshot snapshot) {
+            Latency latency = new Latency();
+            latency.mean = millis(snapshot.getMean());
+            latency.p50 = millis(snapshot.getP50());
+            latency.p90 = millis(snapshot.getP90());
+            latency.p99 = millis(snapshot.getP99());
+            latency.p999 = millis(snapshot.getP999());
+            latency.max = millis(snapshot.getMax());
+            return latency;
+        }
+
+        private static double millis(double nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+
+    public String toJson() {
+        return new GsonBuilder().setPrettyPrinting().create().toJson(this);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.okhttp.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stub server (JDK HttpServer) answering every path with a JSON body after an injected latency.
+ * A share of the requests (errorRate) is answered with 500 Internal Server Error.
+ */
+public class StubServer implements AutoCloseable {
+    static {
+        // otherwise Nagle's algorithm holds back the body behind the headers until the client's delayed ACK (~40ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer httpServer;
+    private final ExecutorService executorService;
+
+    /**
+     *
+     * @param port port to listen on (0: any free port)
+     * @param latencyMillis base latency of every response
+     * @param jitterMillis additional uniformly distributed latency in [0, jitterMillis]
+     * @param errorRate share of requests answered with status 500 (0.0 - 1.0)
+     * @param responseBytes approximate size of the JSON response body
+     */
+    public StubServer(int port, long latencyMillis, long jitterMillis, double errorRate, int responseBytes) throws IOException {
+        char[] padding = new char[Math.max(0, responseBytes - 20)];
+        Arrays.fill(padding, 'x');
+        byte[] responseBody = ("{\"result\":\"" + new String(padding) + "\"}").getBytes(StandardCharsets.UTF_8);
+        byte[] errorBody = "{\"error\":\"injected\"}".getBytes(StandardCharsets.UTF_8);
+
+        this.httpServer = HttpServer.create(new InetSocketAddress("localhost", port), 65535);
+        this.executorService = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.httpServer.createContext("/", exchange -> {
+            try (exchange) {
+                exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long delay = latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+
+                boolean error = errorRate > 0 && random.nextDouble() < errorRate;
+                byte[] body = error ? errorBody : responseBody;
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(error ? 500 : 200, body.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        this.httpServer.setExecutor(this.executorService);
+        this.httpServer.start();
+    }
+
+    public int getPort() {
+        return this.httpServer.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        this.httpServer.stop(0);
+        this.executorService.shutdownNow();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.okhttp.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear latency histogram (nanoseconds), in the spirit of HdrHistogram.
+ * Every power of two is split into 32 linear sub-buckets, so a reported percentile is at most ~3% above the
+ * recorded value; values up to 2^41 ns (about 36 minutes) are distinguished, larger ones fall into the last bucket.
+ * Counts are striped across threads, and recording does not allocate.
+ *
+ * {@link #snapshot()} covers everything recorded so far; {@link #intervalSnapshot()} covers what was recorded since
+ * its previous call and is meant for a single periodic reader (e.g. {@link Slf4jMetricsReporter}).
+ */
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+    private static final int STRIPES = Math.min(4, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator intervalMax = new LongAccumulator(Math::max, 0);
+
+    // previous interval snapshot (reader side)
+    private final long[] intervalStartCounts = new long[BUCKET_COUNT];
+    private long intervalStartSum;
+
+    public void record(long value) {
+        long nonNegative = Math.max(0, value);
+        this.counts.incrementAndGet(stripe() * BUCKET_COUNT + bucketIndex(nonNegative));
+        this.sum.add(nonNegative);
+        this.max.accumulate(nonNegative);
+        this.intervalMax.accumulate(nonNegative);
+    }
+
+    public HistogramSnapshot snapshot() {
+        return this.counts().toSnapshot();
+    }
+
+    public HistogramSnapshot intervalSnapshot() {
+        return this.intervalCounts().toSnapshot();
+    }
+
+    Counts counts() {
+        return new Counts(this.sumStripes(), this.sum.sum(), this.max.get());
+    }
+
+    synchronized Counts intervalCounts() {
+        long intervalMax = this.intervalMax.getThenReset();
+        long sum = this.sum.sum();
+        long[] counts = this.sumStripes();
+
+        long[] intervalCounts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            intervalCounts[i] = counts[i] - this.intervalStartCounts[i];
+        }
+        System.arraycopy(counts, 0, this.intervalStartCounts, 0, BUCKET_COUNT);
+
+        long intervalSum = sum - this.intervalStartSum;
+        this.intervalStartSum = sum;
+        return new Counts(intervalCounts, intervalSum, intervalMax);
+    }
+
+    private long[] sumStripes() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            int offset = stripe * BUCKET_COUNT;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += this.counts.get(offset + i);
+            }
+        }
+        return counts;
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id ^ (id >>> 7)) & (STRIPES - 1));
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+    }
+
+    static long highestValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+
+        int shift = bucketIndex / SUB_BUCKET_COUNT - 1;
+        long subBucket = bucketIndex % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Bucket counts of a histogram (or of several merged histograms).
+     */
+    static final class Counts {
+        private final long[] counts;
+        private long sum;
+        private long max;
+
+        Counts() {
+            this(new long[BUCKET_COUNT], 0, 0);
+        }
+
+        private Counts(long[] counts, long sum, long max) {
+            this.counts = counts;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        Counts add(Counts other) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                this.counts[i] += other.counts[i];
+            }
+            this.sum += other.sum;
+            this.max = Math.max(this.max, other.max);
+            return this;
+        }
+
+        HistogramSnapshot toSnapshot() {
+            long total = 0;
+            for (long count : this.counts) {
+                total += count;
+            }
+
+            return new HistogramSnapshot(
+                    total,
+                    total > 0 ? (double) this.sum / total : 0,
+                    this.percentile(total, 50.0),
+                    this.percentile(total, 90.0),
+                    this.percentile(total, 99.0),
+                    this.percentile(total, 99.9),
+                    this.max);
+        }
+
+        private long percentile(long total, double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += this.counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), this.max);
+                }
+            }
+            return this.max;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.okhttp.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Latency distribution (nanoseconds) at the time of the snapshot.
+ */
+@Data
+@AllArgsConstructor
+public class HistogramSnapshot {
+    private long count;
+    private double mean;
+    private long p50;
+    private long p90;
+    private long p99;
+    private long p999;
+    private long max;
+}
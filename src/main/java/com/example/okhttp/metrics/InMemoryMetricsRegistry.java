@@ -0,0 +1,153 @@
+package com.example.okhttp.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Default registry keeping histograms and counters in memory (no external service).
+ *
+ * A histogram takes about 10 KB per stripe plus 10 KB of interval state (up to ~50 KB), and a path template that
+ * is not normalized can create any number of ids. At most maxMetricIds histograms and counters are kept; beyond
+ * that, values are recorded under {@link #OVERFLOW_TAGS} so totals stay right.
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+    public final static int DEFAULT_MAX_METRIC_IDS = 1024;
+    public final static MetricTags OVERFLOW_TAGS = new MetricTags("overflow", "overflow", "overflow");
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryMetricsRegistry.class);
+
+    private final int maxMetricIds;
+    private final AtomicInteger metricIdCount = new AtomicInteger();
+    private final AtomicBoolean overflowLogged = new AtomicBoolean();
+    private final ConcurrentMap<MetricId, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MetricId, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public InMemoryMetricsRegistry() {
+        this(DEFAULT_MAX_METRIC_IDS);
+    }
+
+    /**
+     * @param maxMetricIds maximum number of histograms and counters (overflow ids excluded)
+     */
+    public InMemoryMetricsRegistry(int maxMetricIds) {
+        this.maxMetricIds = maxMetricIds;
+    }
+
+    @Override
+    public void recordLatency(String name, MetricTags tags, long nanos) {
+        this.get(this.histograms, name, tags, Histogram::new).record(nanos);
+    }
+
+    @Override
+    public void increment(String name, MetricTags tags, long amount) {
+        this.get(this.counters, name, tags, LongAdder::new).add(amount);
+    }
+
+    private <T> T get(ConcurrentMap<MetricId, T> metrics, String name, MetricTags tags, Supplier<T> factory) {
+        MetricId metricId = new MetricId(name, tags);
+        T metric = metrics.get(metricId);
+        if (metric != null) {
+            return metric;
+        }
+
+        metric = metrics.computeIfAbsent(metricId, this.reserve(factory));
+        if (metric != null) {
+            return metric;
+        }
+
+        if (this.overflowLogged.compareAndSet(false, true)) {
+            log.warn("More than {} metric ids, further ones are recorded as {} (first dropped: {} {})",
+                    this.maxMetricIds, OVERFLOW_TAGS, name, tags);
+        }
+        return metrics.computeIfAbsent(new MetricId(name, OVERFLOW_TAGS), id -> factory.get());
+    }
+
+    /**
+     * Creates the metric if the limit is not reached yet, else returns null (no mapping is added).
+     */
+    private <T> Function<MetricId, T> reserve(Supplier<T> factory) {
+        return id -> {
+            if (this.metricIdCount.incrementAndGet() > this.maxMetricIds) {
+                this.metricIdCount.decrementAndGet();
+                return null;
+            }
+            return factory.get();
+        };
+    }
+
+    public Map<MetricId, HistogramSnapshot> getLatencies() {
+        Map<MetricId, HistogramSnapshot> latencies = new ConcurrentHashMap<>();
+        this.histograms.forEach((id, histogram) -> latencies.put(id, histogram.snapshot()));
+        return latencies;
+    }
+
+    /**
+     * Latencies recorded since the previous call, per endpoint and method (byPathTemplate: also per path template).
+     * Interval state is shared, so only one periodic reader should call this.
+     */
+    public Map<MetricId, HistogramSnapshot> getIntervalLatencies(boolean byPathTemplate) {
+        Map<MetricId, Histogram.Counts> merged = new HashMap<>();
+        this.histograms.forEach((id, histogram) -> {
+            MetricTags tags = byPathTemplate
+                    ? id.getTags()
+                    : new MetricTags(id.getTags().getEndPoint(), id.getTags().getMethod(), null);
+            merged.computeIfAbsent(new MetricId(id.getName(), tags), key -> new Histogram.Counts()).add(histogram.intervalCounts());
+        });
+
+        Map<MetricId, HistogramSnapshot> latencies = new HashMap<>();
+        merged.forEach((id, counts) -> latencies.put(id, counts.toSnapshot()));
+        return latencies;
+    }
+
+    public Map<MetricId, Long> getCounters() {
+        Map<MetricId, Long> counters = new ConcurrentHashMap<>();
+        this.counters.forEach((id, counter) -> counters.put(id, counter.sum()));
+        return counters;
+    }
+
+    /**
+     * Sum of a counter over all tags.
+     */
+    public long getCount(String name) {
+        long count = 0;
+        for (Map.Entry<MetricId, LongAdder> entry : this.counters.entrySet()) {
+            if (entry.getKey().getName().equals(name)) {
+                count += entry.getValue().sum();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Share of connection acquisitions served by an already open (pooled or multiplexed) connection.
+     */
+    public double getConnectionReuseRatio() {
+        long acquired = this.getCount(MetricNames.CONNECTION_ACQUIRED);
+        return acquired > 0 ? (double) this.getCount(MetricNames.CONNECTION_REUSED) / acquired : 0;
+    }
+
+    /**
+     * One line per metric, sorted by name and tags.
+     */
+    @Override
+    public String toString() {
+        Map<String, Object> lines = new TreeMap<>();
+        this.histograms.forEach((id, histogram) -> lines.put(id.getName() + " " + id.getTags(), histogram.snapshot()));
+        this.counters.forEach((id, counter) -> lines.put(id.getName() + " " + id.getTags(), counter.sum()));
+
+        StringBuilder builder = new StringBuilder();
+        lines.forEach((key, value) -> builder.append(key).append(" = ").append(value).append('\n'));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.okhttp.metrics;
+
+import lombok.Data;
+
+/**
+ * Metric name and tags.
+ */
+@Data
+public class MetricId {
+    private final String name;
+    private final MetricTags tags;
+}
@@ -0,0 +1,29 @@
+package com.example.okhttp.metrics;
+
+/**
+ * Names of the recorded metrics.
+ */
+public final class MetricNames {
+    // latencies (nanoseconds)
+    public static final String CALL = "http.client.call";
+    public static final String DNS = "http.client.dns";
+    public static final String CONNECT = "http.client.connect";
+    public static final String TLS = "http.client.tls";
+    public static final String CONNECTION_ACQUIRE = "http.client.connection.acquire";
+    public static final String TIME_TO_FIRST_BYTE = "http.client.ttfb";
+    public static final String RESPONSE_BODY = "http.client.response.body";
+    public static final String PARSE = "http.client.parse";
+    public static final String REQUEST_COMPRESSION = "http.client.request.compression";
+
+    // counters
+    public static final String CALL_FAILED = "http.client.call.failed";
+    public static final String BYTES_SENT = "http.client.bytes.sent";
+    public static final String BYTES_RECEIVED = "http.client.bytes.received";
+    public static final String CONNECTION_ACQUIRED = "http.client.connection.acquired";
+    public static final String CONNECTION_REUSED = "http.client.connection.reused";
+    public static final String REQUEST_BYTES_UNCOMPRESSED = "http.client.request.bytes.uncompressed";
+    public static final String REQUEST_BYTES_COMPRESSED = "http.client.request.bytes.compressed";
+
+    private MetricNames() {
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.okhttp.metrics;
+
+import lombok.Data;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+/**
+ * Tags of a request metric: endpoint (scheme://host:port), HTTP method and path template.
+ */
+@Data
+public class MetricTags {
+    private final String endPoint;
+    private final String method;
+    private final String pathTemplate;
+
+    public static MetricTags of(Request request) {
+        HttpUrl url = request.url();
+        PathTemplate pathTemplate = request.tag(PathTemplate.class);
+        return new MetricTags(
+                endPoint(url),
+                request.method(),
+                pathTemplate != null ? pathTemplate.getValue() : PathTemplate.normalize(url));
+    }
+
+    /**
+     * Same tags for the endpoint actually called (e.g. the node chosen by the load balancer).
+     */
+    public MetricTags withEndPoint(HttpUrl url) {
+        String endPoint = endPoint(url);
+        return endPoint.equals(this.endPoint) ? this : new MetricTags(endPoint, this.method, this.pathTemplate);
+    }
+
+    private static String endPoint(HttpUrl url) {
+        return url.scheme() + "://" + url.host() + ":" + url.port();
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.okhttp.metrics;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Records the phases of one call: DNS, connect, TLS, connection acquisition, time to first byte
+ * (last request byte sent to response headers), response body read and the whole call, plus bytes and connection reuse.
+ * The endpoint tag follows the address actually connected to (proxySelectStart, connectionAcquired), so calls
+ * rewritten by the load balancer are tagged with their node rather than the endpoint of the original request.
+ */
+public class MetricsEventListener extends EventListener {
+    private final MetricsRegistry metricsRegistry;
+    private final Consumer<Call> cancelListener;
+    private MetricTags tags;
+
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestSent;
+    private long responseBodyStart;
+    private boolean connected;
+
+    public MetricsEventListener(MetricsRegistry metricsRegistry, MetricTags tags) {
+        this(metricsRegistry, tags, null);
+    }
+
+    /**
+     *
+     * @param cancelListener notified when the call is canceled (nullable). OkHttp takes a single EventListener per
+     *                       client, so interceptors that park a call (coalescing) are woken up through this one.
+     */
+    public MetricsEventListener(MetricsRegistry metricsRegistry, MetricTags tags, Consumer<Call> cancelListener) {
+        this.metricsRegistry = metricsRegistry;
+        this.tags = tags;
+        this.cancelListener = cancelListener;
+    }
+
+    /**
+     * Creates one listener per call, tagged from the original request until its connection is known.
+     */
+    public static class Factory implements EventListener.Factory {
+        private final MetricsRegistry metricsRegistry;
+        private final Consumer<Call> cancelListener;
+
+        public Factory(MetricsRegistry metricsRegistry) {
+            this(metricsRegistry, null);
+        }
+
+        public Factory(MetricsRegistry metricsRegistry, Consumer<Call> cancelListener) {
+            this.metricsRegistry = metricsRegistry;
+            this.cancelListener = cancelListener;
+        }
+
+        public MetricsRegistry getMetricsRegistry() {
+            return this.metricsRegistry;
+        }
+
+        @Override
+        public EventListener create(Call call) {
+            return new MetricsEventListener(this.metricsRegistry, MetricTags.of(call.request()), this.cancelListener);
+        }
+    }
+
+    @Override
+    public void callStart(Call call) {
+        this.callStart = System.nanoTime();
+    }
+
+    @Override
+    public void proxySelectStart(Call call, HttpUrl url) {
+        this.tags = this.tags.withEndPoint(url);
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        this.dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        this.record(MetricNames.DNS, this.dnsStart);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        this.connectStart = System.nanoTime();
+        this.connected = true;
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        this.secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        this.record(MetricNames.TLS, this.secureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        this.record(MetricNames.CONNECT, this.connectStart);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol, IOException ioe) {
+        this.record(MetricNames.CONNECT, this.connectStart);
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        this.tags = this.tags.withEndPoint(connection.route().address().url());
+        this.record(MetricNames.CONNECTION_ACQUIRE, this.callStart);
+        this.metricsRegistry.increment(MetricNames.CONNECTION_ACQUIRED, this.tags, 1);
+        if (!this.connected) {
+            this.metricsRegistry.increment(MetricNames.CONNECTION_REUSED, this.tags, 1);
+        }
+        // a retry or redirect on the same call acquires again
+        this.connected = false;
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        this.requestSent = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        this.requestSent = System.nanoTime();
+        this.metricsRegistry.increment(MetricNames.BYTES_SENT, this.tags, byteCount);
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        this.record(MetricNames.TIME_TO_FIRST_BYTE, this.requestSent);
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        this.responseBodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        this.record(MetricNames.RESPONSE_BODY, this.responseBodyStart);
+        this.metricsRegistry.increment(MetricNames.BYTES_RECEIVED, this.tags, byteCount);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        this.record(MetricNames.CALL, this.callStart);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        this.record(MetricNames.CALL, this.callStart);
+        this.metricsRegistry.increment(MetricNames.CALL_FAILED, this.tags, 1);
+    }
+
+    @Override
+    public void canceled(Call call) {
+        if (this.cancelListener != null) {
+            this.cancelListener.accept(call);
+        }
+    }
+
+    private void record(String name, long start) {
+        if (start != 0) {
+            this.metricsRegistry.recordLatency(name, this.tags, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.okhttp.metrics;
+
+/**
+ * Sink of the request lifecycle metrics recorded by {@link MetricsEventListener} and the clients.
+ * Implementations must be thread-safe; they are called from OkHttp and parse threads.
+ * Metric names are the constants of {@link MetricNames}.
+ */
+public interface MetricsRegistry {
+    void recordLatency(String name, MetricTags tags, long nanos);
+
+    void increment(String name, MetricTags tags, long amount);
+}
@@ -0,0 +1,29 @@
+package com.example.okhttp.metrics;
+
+import lombok.Data;
+import okhttp3.HttpUrl;
+
+import java.util.regex.Pattern;
+
+/**
+ * Path template of a request (e.g. /block/{height}), attached as request tag to keep metric tags low-cardinality.
+ * Requests without this tag are tagged with their path where numeric, hex and UUID segments are replaced by {id}.
+ */
+@Data
+public class PathTemplate {
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "\\d+|(0x)?[0-9a-fA-F]{16,}|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private final String value;
+
+    public static String normalize(HttpUrl url) {
+        StringBuilder path = new StringBuilder();
+        for (String segment : url.pathSegments()) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            path.append('/').append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+        }
+        return path.length() > 0 ? path.toString() : "/";
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.okhttp.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically logs the latencies of the last interval (count, mean, p50 / p90 / p99 / p99.9 / max in milliseconds)
+ * per metric, endpoint and method at INFO level.
+ */
+public class Slf4jMetricsReporter implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(Slf4jMetricsReporter.class);
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "okhttp-metrics-reporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final InMemoryMetricsRegistry metricsRegistry;
+    private final boolean byPathTemplate;
+    private ScheduledFuture<?> task;
+
+    public Slf4jMetricsReporter(InMemoryMetricsRegistry metricsRegistry) {
+        this(metricsRegistry, false);
+    }
+
+    /**
+     *
+     * @param metricsRegistry registry of the client (getMetricsRegistry())
+     * @param byPathTemplate report every path template separately instead of per endpoint and method only
+     */
+    public Slf4jMetricsReporter(InMemoryMetricsRegistry metricsRegistry, boolean byPathTemplate) {
+        this.metricsRegistry = metricsRegistry;
+        this.byPathTemplate = byPathTemplate;
+    }
+
+    public synchronized void start(long period, TimeUnit timeUnit) {
+        if (this.task != null) {
+            throw new IllegalStateException("Reporter is already started");
+        }
+        this.task = SCHEDULER.scheduleAtFixedRate(this::report, period, period, timeUnit);
+    }
+
+    /**
+     * Log the latencies recorded since the previous report.
+     */
+    public void report() {
+        try {
+            Map<MetricId, HistogramSnapshot> latencies = this.metricsRegistry.getIntervalLatencies(this.byPathTemplate);
+            latencies.entrySet().stream()
+                    .filter(entry -> entry.getValue().getCount() > 0)
+                    .sorted(Comparator.comparing((Map.Entry<MetricId, HistogramSnapshot> entry) -> entry.getKey().toString()))
+                    .forEach(entry -> this.log(entry.getKey(), entry.getValue()));
+        } catch (Exception e) {
+            log.warn("Failed to report metrics", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.task != null) {
+            this.task.cancel(false);
+            this.task = null;
+        }
+    }
+
+    private void log(MetricId id, HistogramSnapshot snapshot) {
+        MetricTags tags = id.getTags();
+        log.info("{} {} {}{} count={} mean={}ms p50={}ms p90={}ms p99={}ms p99.9={}ms max={}ms",
+                id.getName(), tags.getMethod(), tags.getEndPoint(),
+                tags.getPathTemplate() != null ? tags.getPathTemplate() : "",
+                snapshot.getCount(),
+                millis((long) snapshot.getMean()),
+                millis(snapshot.getP50()),
+                millis(snapshot.getP90()),
+                millis(snapshot.getP99()),
+                millis(snapshot.getP999()),
+                millis(snapshot.getMax()));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.okhttp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batching option for BatchingSubmitter.
+ * A batch is sent when maxBatchSize items or maxBatchBytes of serialized JSON are queued, or lingerTime after
+ * its first item was queued. At most maxQueueSize items are queued or in flight (sent, response not yet received);
+ * submit() then blocks up to maxBlockTime.
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class BatchingOption {
+    public final static int DEFAULT_MAX_BATCH_SIZE = 500;
+    public final static long DEFAULT_MAX_BATCH_BYTES = 1024 * 1024;
+    public final static long DEFAULT_LINGER_TIME = 10;
+    public final static int DEFAULT_MAX_QUEUE_SIZE = 10000;
+    public final static long DEFAULT_MAX_BLOCK_TIME = 1000;
+    public final static TimeUnit DEFAULT_TIME_UNIT = TimeUnit.MILLISECONDS;
+
+    @Builder.Default
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    @Builder.Default
+    private long maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+    @Builder.Default
+    private long lingerTime = DEFAULT_LINGER_TIME;
+    @Builder.Default
+    private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+    @Builder.Default
+    private long maxBlockTime = DEFAULT_MAX_BLOCK_TIME;
+    @Builder.Default
+    private TimeUnit timeUnit = DEFAULT_TIME_UNIT;
+
+    public BatchingOption() {
+        this(DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_BATCH_BYTES, DEFAULT_LINGER_TIME,
+                DEFAULT_MAX_QUEUE_SIZE, DEFAULT_MAX_BLOCK_TIME, DEFAULT_TIME_UNIT);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.okhttp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response cache option.
+ *
+ * maxEntries, maxEntryBytes, ttl: heap LRU tier for GET response bodies (keyed on the canonical URL)
+ * cacheObjects: also keep deserialized objects of typed GET calls (callers must not mutate them)
+ * diskCacheDirectory, diskCacheMaxSize: optional OkHttp disk cache honouring Cache-Control / ETag (null: disabled)
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class CacheOption {
+    public final static TimeUnit DEFAULT_TIME_UNIT = TimeUnit.MILLISECONDS;
+    public final static int DEFAULT_MAX_ENTRIES = 1000;
+    public final static int DEFAULT_MAX_ENTRY_BYTES = 1024 * 1024;
+    public final static long DEFAULT_TTL = 60000;
+    public final static boolean DEFAULT_CACHE_OBJECTS = false;
+    public final static long DEFAULT_DISK_CACHE_MAX_SIZE = 50L * 1024 * 1024;
+
+    @Builder.Default
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    @Builder.Default
+    private int maxEntryBytes = DEFAULT_MAX_ENTRY_BYTES;
+    @Builder.Default
+    private long ttl = DEFAULT_TTL;
+    @Builder.Default
+    private boolean cacheObjects = DEFAULT_CACHE_OBJECTS;
+    private File diskCacheDirectory;
+    @Builder.Default
+    private long diskCacheMaxSize = DEFAULT_DISK_CACHE_MAX_SIZE;
+    @Builder.Default
+    private TimeUnit timeUnit = DEFAULT_TIME_UNIT;
+
+    public CacheOption() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_ENTRY_BYTES, DEFAULT_TTL, DEFAULT_CACHE_OBJECTS,
+                null, DEFAULT_DISK_CACHE_MAX_SIZE, DEFAULT_TIME_UNIT);
+    }
+}
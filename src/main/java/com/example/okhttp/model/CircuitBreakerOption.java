@@ -0,0 +1,54 @@
+package com.example.okhttp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker option (one circuit breaker per endpoint).
+ *
+ * slidingWindowSize: number of recent calls evaluated
+ * minimumNumberOfCalls: calls required before rates are evaluated
+ * failureRateThreshold, slowCallRateThreshold: percent of calls that opens the circuit
+ * slowCallDuration: calls slower than this are slow calls
+ * waitDurationInOpenState: how long calls fail fast before probing
+ * permittedCallsInHalfOpenState: number of probe calls
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class CircuitBreakerOption {
+    public final static TimeUnit DEFAULT_TIME_UNIT = TimeUnit.MILLISECONDS;
+    public final static int DEFAULT_SLIDING_WINDOW_SIZE = 100;
+    public final static int DEFAULT_MINIMUM_NUMBER_OF_CALLS = 20;
+    public final static float DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+    public final static float DEFAULT_SLOW_CALL_RATE_THRESHOLD = 80;
+    public final static long DEFAULT_SLOW_CALL_DURATION = 5000;
+    public final static long DEFAULT_WAIT_DURATION_IN_OPEN_STATE = 30000;
+    public final static int DEFAULT_PERMITTED_CALLS_IN_HALF_OPEN_STATE = 5;
+
+    @Builder.Default
+    private int slidingWindowSize = DEFAULT_SLIDING_WINDOW_SIZE;
+    @Builder.Default
+    private int minimumNumberOfCalls = DEFAULT_MINIMUM_NUMBER_OF_CALLS;
+    @Builder.Default
+    private float failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+    @Builder.Default
+    private float slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+    @Builder.Default
+    private long slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+    @Builder.Default
+    private long waitDurationInOpenState = DEFAULT_WAIT_DURATION_IN_OPEN_STATE;
+    @Builder.Default
+    private int permittedCallsInHalfOpenState = DEFAULT_PERMITTED_CALLS_IN_HALF_OPEN_STATE;
+    @Builder.Default
+    private TimeUnit timeUnit = DEFAULT_TIME_UNIT;
+
+    public CircuitBreakerOption() {
+        this(DEFAULT_SLIDING_WINDOW_SIZE, DEFAULT_MINIMUM_NUMBER_OF_CALLS, DEFAULT_FAILURE_RATE_THRESHOLD,
+                DEFAULT_SLOW_CALL_RATE_THRESHOLD, DEFAULT_SLOW_CALL_DURATION, DEFAULT_WAIT_DURATION_IN_OPEN_STATE,
+                DEFAULT_PERMITTED_CALLS_IN_HALF_OPEN_STATE, DEFAULT_TIME_UNIT);
+    }
+}
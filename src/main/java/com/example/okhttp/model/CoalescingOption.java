@@ -0,0 +1,30 @@
+package com.example.okhttp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Single-flight option for identical concurrent GET / HEAD requests.
+ *
+ * keyHeaders: request headers that are part of the key besides method and canonical URL (e.g. Authorization)
+ * maxBodyBytes: larger responses are not shared; waiting callers then send their own request
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class CoalescingOption {
+    public final static List<String> DEFAULT_KEY_HEADERS = List.of("Authorization", "Accept");
+    public final static int DEFAULT_MAX_BODY_BYTES = 1024 * 1024;
+
+    @Builder.Default
+    private List<String> keyHeaders = DEFAULT_KEY_HEADERS;
+    @Builder.Default
+    private int maxBodyBytes = DEFAULT_MAX_BODY_BYTES;
+
+    public CoalescingOption() {
+        this(DEFAULT_KEY_HEADERS, DEFAULT_MAX_BODY_BYTES);
+    }
+}
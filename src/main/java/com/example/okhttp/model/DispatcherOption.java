@@ -0,0 +1,32 @@
+package com.example.okhttp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * OkHttp Dispatcher option (async calls only).
+ * A limit of {@link #FOLLOW_CONNECTION_POOL} follows {@link ConnectionPoolOption#getMaxConnectionCount()}.
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class DispatcherOption {
+    public final static int FOLLOW_CONNECTION_POOL = 0;
+    public final static int DEFAULT_MAX_REQUESTS = FOLLOW_CONNECTION_POOL;
+    public final static int DEFAULT_MAX_REQUESTS_PER_HOST = FOLLOW_CONNECTION_POOL;
+
+    private int maxRequests;
+    private int maxRequestsPerHost;
+    private ExecutorService executorService;
+
+    public DispatcherOption() {
+        this(DEFAULT_MAX_REQUESTS, DEFAULT_MAX_REQUESTS_PER_HOST, null);
+    }
+
+    public DispatcherOption(int maxRequests, int maxRequestsPerHost) {
+        this(maxRequests, maxRequestsPerHost, null);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.okhttp.model;
+
+import com.example.okhttp.io.ProgressListener;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Streaming download option.
+ *
+ * transferSize: bytes copied per write into the target (size of the reused direct buffer)
+ * checksumAlgorithm: MessageDigest algorithm of the checksum (e.g. SHA-256, null: no checksum)
+ * expectedChecksum: hex checksum to verify (null: only compute it)
+ * atomic: write a temp file next to the target and rename it when complete (file targets only)
+ * progressListener: called once per transferSize bytes (null: no progress), from the segment threads of a ranged download
+ * segmentCount: byte ranges fetched concurrently when the server accepts ranges (1: single stream)
+ * minSegmentSize: smaller resources are split into fewer segments
+ * segmentRetryCount: retries of a failed segment, resuming from its last written byte
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class DownloadOption {
+    public final static int DEFAULT_TRANSFER_SIZE = 1024 * 1024;
+    public final static boolean DEFAULT_ATOMIC = true;
+    public final static int DEFAULT_SEGMENT_COUNT = 1;
+    public final static long DEFAULT_MIN_SEGMENT_SIZE = 8L * 1024 * 1024;
+    public final static int DEFAULT_SEGMENT_RETRY_COUNT = 3;
+
+    @Builder.Default
+    private int transferSize = DEFAULT_TRANSFER_SIZE;
+    private String checksumAlgorithm;
+    private String expectedChecksum;
+    @Builder.Default
+    private boolean atomic = DEFAULT_ATOMIC;
+    private ProgressListener progressListener;
+    @Builder.Default
+    private int segmentCount = DEFAULT_SEGMENT_COUNT;
+    @Builder.Default
+    private long minSegmentSize = DEFAULT_MIN_SEGMENT_SIZE;
+    @Builder.Default
+    private int segmentRetryCount = DEFAULT_SEGMENT_RETRY_COUNT;
+
+    public DownloadOption() {
+        this(DEFAULT_TRANSFER_SIZE, null, null, DEFAULT_ATOMIC, null,
+                DEFAULT_SEGMENT_COUNT, DEFAULT_MIN_SEGMENT_SIZE, DEFAULT_SEGMENT_RETRY_COUNT);
+    }
+}
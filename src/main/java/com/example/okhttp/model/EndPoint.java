@@ -12,6 +12,7 @@ public class EndPoint {
     public static final String DEFAULT_HOST = "localhost";
     public static final int DEFAULT_PORT = 8080;
     public static final String DEFAULT_BASE_PATH = "";
+    public static final HttpVersion DEFAULT_HTTP_VERSION = HttpVersion.HTTP_2;
 
     private String protocol;
     private String host;
@@ -19,6 +20,7 @@ public class EndPoint {
     private String basePath;
     private String username;
     private String password;
+    private HttpVersion httpVersion;
 
     public EndPoint() {
         this(DEFAULT_PROTOCOL, DEFAULT_HOST, DEFAULT_PORT, DEFAULT_BASE_PATH);
@@ -29,10 +31,11 @@ public class EndPoint {
     }
 
     public EndPoint(String protocol, String host, int port, String basePath) {
-        this.protocol = protocol;
-        this.host = host;
-        this.port = port;
-        this.basePath = basePath;
+        this(protocol, host, port, basePath, null, null);
+    }
+
+    public EndPoint(String protocol, String host, int port, String basePath, String username, String password) {
+        this(protocol, host, port, basePath, username, password, DEFAULT_HTTP_VERSION);
     }
 
     public static class Builder {
@@ -72,6 +75,11 @@ public class EndPoint {
             return this;
         }
 
+        public Builder httpVersion(HttpVersion val) {
+            this.endPoint.httpVersion = val;
+            return this;
+        }
+
         public EndPoint build() {
             return this.endPoint;
         }
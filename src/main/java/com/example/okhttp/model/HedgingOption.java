@@ -0,0 +1,46 @@
+package com.example.okhttp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedged GET option.
+ * A duplicate request is sent when no response arrived within the given percentile of recent latencies
+ * (clamped to [minDelay, maxDelay]; maxDelay is used until minSamples latencies were recorded).
+ * Hedges are capped at maxHedgePercent of requests.
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class HedgingOption {
+    public final static TimeUnit DEFAULT_TIME_UNIT = TimeUnit.MILLISECONDS;
+    public final static double DEFAULT_PERCENTILE = 95.0;
+    public final static long DEFAULT_MIN_DELAY = 10;
+    public final static long DEFAULT_MAX_DELAY = 1000;
+    public final static int DEFAULT_MAX_HEDGE_PERCENT = 10;
+    public final static int DEFAULT_SAMPLE_SIZE = 1000;
+    public final static int DEFAULT_MIN_SAMPLES = 100;
+
+    @Builder.Default
+    private double percentile = DEFAULT_PERCENTILE;
+    @Builder.Default
+    private long minDelay = DEFAULT_MIN_DELAY;
+    @Builder.Default
+    private long maxDelay = DEFAULT_MAX_DELAY;
+    @Builder.Default
+    private int maxHedgePercent = DEFAULT_MAX_HEDGE_PERCENT;
+    @Builder.Default
+    private int sampleSize = DEFAULT_SAMPLE_SIZE;
+    @Builder.Default
+    private int minSamples = DEFAULT_MIN_SAMPLES;
+    @Builder.Default
+    private TimeUnit timeUnit = DEFAULT_TIME_UNIT;
+
+    public HedgingOption() {
+        this(DEFAULT_PERCENTILE, DEFAULT_MIN_DELAY, DEFAULT_MAX_DELAY, DEFAULT_MAX_HEDGE_PERCENT,
+                DEFAULT_SAMPLE_SIZE, DEFAULT_MIN_SAMPLES, DEFAULT_TIME_UNIT);
+    }
+}
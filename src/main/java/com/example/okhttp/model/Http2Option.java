@@ -0,0 +1,32 @@
+package com.example.okhttp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP/2 connection option.
+ *
+ * Streams per connection are limited by the server (SETTINGS_MAX_CONCURRENT_STREAMS); concurrent calls per host
+ * are limited by DispatcherOption.maxRequestsPerHost.
+ *
+ * pingInterval: interval of HTTP/2 PING frames keeping idle multiplexed connections alive (0: disabled)
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class Http2Option {
+    public final static long DEFAULT_PING_INTERVAL = 0;
+    public final static TimeUnit DEFAULT_TIME_UNIT = TimeUnit.MILLISECONDS;
+
+    @Builder.Default
+    private long pingInterval = DEFAULT_PING_INTERVAL;
+    @Builder.Default
+    private TimeUnit timeUnit = DEFAULT_TIME_UNIT;
+
+    public Http2Option() {
+        this(DEFAULT_PING_INTERVAL, DEFAULT_TIME_UNIT);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.okhttp.model;
+
+import lombok.Getter;
+import okhttp3.Protocol;
+
+import java.util.List;
+
+/**
+ * HTTP version used to talk to an EndPoint.
+ *
+ * HTTP_1_1: HTTP/1.1 only (one request per connection at a time)
+ * HTTP_2: HTTP/2 negotiated with ALPN over TLS (https), HTTP/1.1 otherwise (OkHttp default)
+ * H2_PRIOR_KNOWLEDGE: cleartext HTTP/2 (h2c) without upgrade, for http endpoints known to speak HTTP/2
+ */
+@Getter
+public enum HttpVersion {
+    HTTP_1_1(List.of(Protocol.HTTP_1_1)),
+    HTTP_2(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)),
+    H2_PRIOR_KNOWLEDGE(List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+
+    private final List<Protocol> protocols;
+
+    HttpVersion(List<Protocol> protocols) {
+        this.protocols = protocols;
+    }
+}
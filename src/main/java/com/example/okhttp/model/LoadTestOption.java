@@ -0,0 +1,55 @@
+package com.example.okhttp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test option.
+ *
+ * OPEN_LOOP: requests start at a fixed arrival rate (ratePerSecond) whatever the response times; latency is measured
+ * from the intended start time, so queueing behind slow calls is not hidden (no coordinated omission).
+ * maxConcurrency caps the calls in flight; arrivals beyond it are counted as dropped, and as failures in errorRate.
+ * CLOSED_LOOP: concurrency callers each send the next request as soon as the previous one completed.
+ *
+ * Nothing is recorded during warmup; the measurement then runs for duration.
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class LoadTestOption {
+    public enum Mode {
+        OPEN_LOOP,
+        CLOSED_LOOP
+    }
+
+    public final static Mode DEFAULT_MODE = Mode.OPEN_LOOP;
+    public final static int DEFAULT_RATE_PER_SECOND = 1000;
+    public final static int DEFAULT_CONCURRENCY = 64;
+    public final static int DEFAULT_MAX_CONCURRENCY = 1000;
+    public final static long DEFAULT_WARMUP = 5000;
+    public final static long DEFAULT_DURATION = 30000;
+    public final static TimeUnit DEFAULT_TIME_UNIT = TimeUnit.MILLISECONDS;
+
+    @Builder.Default
+    private Mode mode = DEFAULT_MODE;
+    @Builder.Default
+    private int ratePerSecond = DEFAULT_RATE_PER_SECOND;
+    @Builder.Default
+    private int concurrency = DEFAULT_CONCURRENCY;
+    @Builder.Default
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    @Builder.Default
+    private long warmup = DEFAULT_WARMUP;
+    @Builder.Default
+    private long duration = DEFAULT_DURATION;
+    @Builder.Default
+    private TimeUnit timeUnit = DEFAULT_TIME_UNIT;
+
+    public LoadTestOption() {
+        this(DEFAULT_MODE, DEFAULT_RATE_PER_SECOND, DEFAULT_CONCURRENCY, DEFAULT_MAX_CONCURRENCY,
+                DEFAULT_WARMUP, DEFAULT_DURATION, DEFAULT_TIME_UNIT);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.okhttp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * JSON request body option.
+ * oneShot: the body may be written only once (OkHttp will not retry or follow redirects with it).
+ * bufferSize: char buffer between Gson and the Okio sink.
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class RequestBodyOption {
+    public final static boolean DEFAULT_ONE_SHOT = false;
+    public final static int DEFAULT_BUFFER_SIZE = 8192;
+
+    @Builder.Default
+    private boolean oneShot = DEFAULT_ONE_SHOT;
+    @Builder.Default
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    public RequestBodyOption() {
+        this(DEFAULT_ONE_SHOT, DEFAULT_BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.okhttp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Request body compression option.
+ *
+ * encoding: GZIP or DEFLATE (zlib), sent as Content-Encoding (null: GZIP)
+ * minSize: bodies smaller than this (bytes) are sent uncompressed (0: DEFAULT_MIN_SIZE, 1: compress every body)
+ * level: Deflater level (1: fastest .. 9: smallest, 0 or -1: default; storing without compression is not supported)
+ * excludedContentTypes: content type prefixes that are not compressed (already compressed media, multipart)
+ * (null: DEFAULT_EXCLUDED_CONTENT_TYPES, empty list: none)
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class RequestCompressionOption {
+    public enum Encoding {
+        GZIP,
+        DEFLATE
+    }
+
+    public final static Encoding DEFAULT_ENCODING = Encoding.GZIP;
+    public final static long DEFAULT_MIN_SIZE = 1024;
+    public final static int DEFAULT_LEVEL = Deflater.DEFAULT_COMPRESSION;
+    public final static List<String> DEFAULT_EXCLUDED_CONTENT_TYPES = List.of(
+            "image/", "video/", "audio/", "multipart/",
+            "application/zip", "application/gzip", "application/x-gzip", "application/zstd",
+            "application/x-bzip2", "application/x-xz", "application/x-7z-compressed");
+
+    @Builder.Default
+    private Encoding encoding = DEFAULT_ENCODING;
+    @Builder.Default
+    private long minSize = DEFAULT_MIN_SIZE;
+    @Builder.Default
+    private int level = DEFAULT_LEVEL;
+    @Builder.Default
+    private List<String> excludedContentTypes = DEFAULT_EXCLUDED_CONTENT_TYPES;
+
+    public RequestCompressionOption() {
+        this(DEFAULT_ENCODING, DEFAULT_MIN_SIZE, DEFAULT_LEVEL, DEFAULT_EXCLUDED_CONTENT_TYPES);
+    }
+}
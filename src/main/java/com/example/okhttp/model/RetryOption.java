@@ -0,0 +1,57 @@
+package com.example.okhttp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retry option. The number of retries is {@link ConnectionPoolOption#getRetryCount()}.
+ *
+ * baseDelay, maxDelay: decorrelated jitter backoff bounds
+ * retryOnPost: retry POST/PATCH without an idempotency key
+ * idempotencyKeyHeader: a POST/PATCH carrying this header is retried
+ * retryStatusCodes: response codes treated as retryable
+ * budgetPercent, minRetriesPerWindow, budgetWindow: retries allowed per window (percent of requests, at least minRetriesPerWindow)
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class RetryOption {
+    public final static TimeUnit DEFAULT_TIME_UNIT = TimeUnit.MILLISECONDS;
+    public final static long DEFAULT_BASE_DELAY = 100;
+    public final static long DEFAULT_MAX_DELAY = 10000;
+    public final static boolean DEFAULT_RETRY_ON_POST = false;
+    public final static String DEFAULT_IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public final static Set<Integer> DEFAULT_RETRY_STATUS_CODES = Set.of(429, 502, 503, 504);
+    public final static int DEFAULT_BUDGET_PERCENT = 20;
+    public final static int DEFAULT_MIN_RETRIES_PER_WINDOW = 10;
+    public final static long DEFAULT_BUDGET_WINDOW = 10000;
+
+    @Builder.Default
+    private long baseDelay = DEFAULT_BASE_DELAY;
+    @Builder.Default
+    private long maxDelay = DEFAULT_MAX_DELAY;
+    @Builder.Default
+    private boolean retryOnPost = DEFAULT_RETRY_ON_POST;
+    @Builder.Default
+    private String idempotencyKeyHeader = DEFAULT_IDEMPOTENCY_KEY_HEADER;
+    @Builder.Default
+    private Set<Integer> retryStatusCodes = DEFAULT_RETRY_STATUS_CODES;
+    @Builder.Default
+    private int budgetPercent = DEFAULT_BUDGET_PERCENT;
+    @Builder.Default
+    private int minRetriesPerWindow = DEFAULT_MIN_RETRIES_PER_WINDOW;
+    @Builder.Default
+    private long budgetWindow = DEFAULT_BUDGET_WINDOW;
+    @Builder.Default
+    private TimeUnit timeUnit = DEFAULT_TIME_UNIT;
+
+    public RetryOption() {
+        this(DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY, DEFAULT_RETRY_ON_POST, DEFAULT_IDEMPOTENCY_KEY_HEADER,
+                DEFAULT_RETRY_STATUS_CODES, DEFAULT_BUDGET_PERCENT, DEFAULT_MIN_RETRIES_PER_WINDOW,
+                DEFAULT_BUDGET_WINDOW, DEFAULT_TIME_UNIT);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.okhttp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON-RPC 2.0 option.
+ *
+ * path: path of the JSON-RPC endpoint (appended to the EndPoint URL)
+ * autoBatching: collect rpc() calls into one batch, sent when maxBatchSize calls are pending or lingerTime elapsed
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class RpcOption {
+    public final static String DEFAULT_PATH = "/";
+    public final static boolean DEFAULT_AUTO_BATCHING = false;
+    public final static int DEFAULT_MAX_BATCH_SIZE = 100;
+    public final static long DEFAULT_LINGER_TIME = 5;
+    public final static TimeUnit DEFAULT_TIME_UNIT = TimeUnit.MILLISECONDS;
+
+    @Builder.Default
+    private String path = DEFAULT_PATH;
+    @Builder.Default
+    private boolean autoBatching = DEFAULT_AUTO_BATCHING;
+    @Builder.Default
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    @Builder.Default
+    private long lingerTime = DEFAULT_LINGER_TIME;
+    @Builder.Default
+    private TimeUnit timeUnit = DEFAULT_TIME_UNIT;
+
+    public RpcOption() {
+        this(DEFAULT_PATH, DEFAULT_AUTO_BATCHING, DEFAULT_MAX_BATCH_SIZE, DEFAULT_LINGER_TIME, DEFAULT_TIME_UNIT);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.okhttp.model;
+
+import com.example.okhttp.io.ProgressListener;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Chunked (resumable) upload option.
+ *
+ * partSize: bytes per part
+ * parallelism: parts uploaded concurrently
+ * partRetryCount: retries of a failed part
+ * completePath: path POSTed with the upload summary (JSON) when all parts are uploaded (null: no completion request)
+ * stateDirectory: directory of the state file (null: next to the uploaded file)
+ * progressListener: called once per uploaded part, from the upload threads (null: no progress)
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class UploadOption {
+    public final static long DEFAULT_PART_SIZE = 8L * 1024 * 1024;
+    public final static int DEFAULT_PARALLELISM = 4;
+    public final static int DEFAULT_PART_RETRY_COUNT = 3;
+
+    @Builder.Default
+    private long partSize = DEFAULT_PART_SIZE;
+    @Builder.Default
+    private int parallelism = DEFAULT_PARALLELISM;
+    @Builder.Default
+    private int partRetryCount = DEFAULT_PART_RETRY_COUNT;
+    private String completePath;
+    private String stateDirectory;
+    private ProgressListener progressListener;
+
+    public UploadOption() {
+        this(DEFAULT_PART_SIZE, DEFAULT_PARALLELISM, DEFAULT_PART_RETRY_COUNT, null, null, null);
+    }
+}
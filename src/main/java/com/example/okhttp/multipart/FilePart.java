@@ -0,0 +1,304 @@
+package com.example.okhttp.multipart;
+
+import com.example.okhttp.io.ProgressListener;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.GzipSink;
+import okio.Okio;
+import okio.Sink;
+import okio.Source;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * File part of a multipart/form-data body.
+ * The content comes from a file (streamed from a FileChannel, or from memory-mapped regions) or from memory
+ * (byte[] / ByteBuffer, e.g. generated payloads). The content type is detected from the file and its name unless set.
+ * Every part has a known length, so the multipart body is sent with Content-Length. A compressed part is gzipped
+ * while it is written; its length is measured once by compressing into a counting blackhole, which costs a second
+ * compression pass instead of buffering the compressed bytes.
+ */
+public class FilePart {
+    public final static String DEFAULT_NAME = "file";
+    public final static MediaType DEFAULT_CONTENT_TYPE = MediaType.get("application/octet-stream");
+
+    // progress is reported at most once per chunk
+    private static final int CHUNK_SIZE = 64 * 1024;
+    // memory-mapped regions are limited to 2 GiB
+    private static final long MAX_MAPPED_REGION = 1024L * 1024 * 1024;
+
+    private final String name;
+    private String fileName;
+    private MediaType contentType;
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final long length;
+    private boolean memoryMapped;
+    private boolean compressed;
+    private ProgressListener progressListener;
+
+    private FilePart(String name, String fileName, Path path, ByteBuffer buffer, long length) {
+        this.name = Objects.requireNonNull(name);
+        this.fileName = fileName;
+        this.path = path;
+        this.buffer = buffer;
+        this.length = length;
+    }
+
+    public static FilePart of(File file) {
+        return of(DEFAULT_NAME, file.toPath());
+    }
+
+    public static FilePart of(String name, File file) {
+        return of(name, file.toPath());
+    }
+
+    public static FilePart of(String name, Path path) {
+        try {
+            return new FilePart(name, path.getFileName().toString(), path, null, Files.size(path));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static FilePart of(String name, String fileName, byte[] bytes) {
+        return of(name, fileName, ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * In-memory part of the remaining bytes of the buffer. The buffer is not modified.
+     */
+    public static FilePart of(String name, String fileName, ByteBuffer buffer) {
+        ByteBuffer content = buffer.asReadOnlyBuffer();
+        return new FilePart(name, fileName, null, content, content.remaining());
+    }
+
+    public FilePart setFileName(String fileName) {
+        this.fileName = fileName;
+        return this;
+    }
+
+    public FilePart setContentType(MediaType contentType) {
+        this.contentType = contentType;
+        return this;
+    }
+
+    /**
+     * Read a file part through memory-mapped regions instead of FileChannel reads.
+     */
+    public FilePart setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+        return this;
+    }
+
+    /**
+     * Gzip the part (Content-Encoding: gzip part header).
+     */
+    public FilePart setCompressed(boolean compressed) {
+        this.compressed = compressed;
+        return this;
+    }
+
+    /**
+     * Progress of the part content (uncompressed bytes) while the body is written.
+     */
+    public FilePart setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getFileName() {
+        return this.fileName;
+    }
+
+    public long getLength() {
+        return this.length;
+    }
+
+    /**
+     * Set content type, or the type detected from the file (Files.probeContentType) and its name.
+     */
+    public MediaType getContentType() {
+        if (this.contentType == null) {
+            this.contentType = detectContentType(this.path, this.fileName);
+        }
+        return this.contentType;
+    }
+
+    public MultipartBody.Part toPart() {
+        StringBuilder disposition = new StringBuilder("form-data; name=");
+        appendQuotedString(disposition, this.name);
+        if (this.fileName != null) {
+            disposition.append("; filename=");
+            appendQuotedString(disposition, this.fileName);
+        }
+
+        Headers.Builder headersBuilder = new Headers.Builder()
+                .addUnsafeNonAscii("Content-Disposition", disposition.toString());
+        if (this.compressed) {
+            headersBuilder.add("Content-Encoding", "gzip");
+        }
+        return MultipartBody.Part.create(headersBuilder.build(), new FilePartRequestBody());
+    }
+
+    private class FilePartRequestBody extends RequestBody {
+        private long contentLength = -1;
+
+        @Override
+        public MediaType contentType() {
+            return FilePart.this.getContentType();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            if (!FilePart.this.compressed) {
+                return FilePart.this.length;
+            }
+
+            if (this.contentLength < 0) {
+                CountingSink countingSink = new CountingSink(Okio.blackhole());
+                try (BufferedSink gzipSink = Okio.buffer(new GzipSink(countingSink))) {
+                    FilePart.this.writeContent(gzipSink, null);
+                }
+                this.contentLength = countingSink.bytes;
+            }
+            return this.contentLength;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            if (!FilePart.this.compressed) {
+                FilePart.this.writeContent(sink, FilePart.this.progressListener);
+                return;
+            }
+
+            // closing the gzip sink writes the trailer, but must not close the request body
+            BufferedSink gzipSink = Okio.buffer(new GzipSink(new ForwardingSink(sink) {
+                @Override
+                public void close() throws IOException {
+                    this.flush();
+                }
+            }));
+            FilePart.this.writeContent(gzipSink, FilePart.this.progressListener);
+            gzipSink.close();
+        }
+    }
+
+    private void writeContent(BufferedSink sink, ProgressListener progressListener) throws IOException {
+        if (this.buffer != null) {
+            this.writeBuffer(this.buffer.duplicate(), sink, 0, progressListener);
+            return;
+        }
+
+        try (FileChannel fileChannel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            if (this.memoryMapped) {
+                for (long position = 0; position < this.length; position += MAX_MAPPED_REGION) {
+                    long size = Math.min(MAX_MAPPED_REGION, this.length - position);
+                    this.writeBuffer(fileChannel.map(FileChannel.MapMode.READ_ONLY, position, size), sink, position, progressListener);
+                }
+                return;
+            }
+
+            Source source = Okio.source(Channels.newInputStream(fileChannel));
+            long bytesWritten = 0;
+            while (bytesWritten < this.length) {
+                long byteCount = Math.min(CHUNK_SIZE, this.length - bytesWritten);
+                sink.write(source, byteCount);
+                bytesWritten += byteCount;
+                this.onProgress(progressListener, bytesWritten);
+            }
+        }
+    }
+
+    private void writeBuffer(ByteBuffer content, BufferedSink sink, long offset, ProgressListener progressListener) throws IOException {
+        int start = content.position();
+        int end = content.limit();
+        while (content.position() < end) {
+            content.limit(Math.min(end, content.position() + CHUNK_SIZE));
+            while (content.hasRemaining()) {
+                sink.write(content);
+            }
+            this.onProgress(progressListener, offset + content.position() - start);
+        }
+    }
+
+    private void onProgress(ProgressListener progressListener, long bytesWritten) {
+        if (progressListener != null) {
+            progressListener.onProgress(bytesWritten, this.length);
+        }
+    }
+
+    private static MediaType detectContentType(Path path, String fileName) {
+        String type = null;
+        if (path != null) {
+            try {
+                type = Files.probeContentType(path);
+            } catch (IOException e) {
+                type = null;
+            }
+        }
+        if (type == null && fileName != null) {
+            type = URLConnection.guessContentTypeFromName(fileName);
+        }
+
+        MediaType mediaType = type != null ? MediaType.parse(type) : null;
+        return mediaType != null ? mediaType : DEFAULT_CONTENT_TYPE;
+    }
+
+    /**
+     * Quoted string of a Content-Disposition parameter, escaped like OkHttp's MultipartBody.
+     */
+    private static void appendQuotedString(StringBuilder target, String value) {
+        target.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\n':
+                    target.append("%0A");
+                    break;
+                case '\r':
+                    target.append("%0D");
+                    break;
+                case '"':
+                    target.append("%22");
+                    break;
+                default:
+                    target.append(c);
+                    break;
+            }
+        }
+        target.append('"');
+    }
+
+    private static class CountingSink extends ForwardingSink {
+        private long bytes;
+
+        CountingSink(Sink delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            this.bytes += byteCount;
+            super.write(source, byteCount);
+        }
+    }
+}
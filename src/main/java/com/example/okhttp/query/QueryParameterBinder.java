@@ -0,0 +1,178 @@
+package com.example.okhttp.query;
+
+import com.google.gson.annotations.SerializedName;
+import okhttp3.HttpUrl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binds the fields of an object to query parameters.
+ * The accessors of a class are resolved once into MethodHandles and cached in a {@link ClassValue}.
+ *
+ * - fields of the class and its superclasses (static, transient and synthetic fields are skipped)
+ * - the parameter name is the {@link SerializedName} value, or the field name
+ * - null values are skipped; collections and arrays add one parameter per element; maps add name.key parameters
+ * - nested objects whose class does not override toString() are bound as name.field parameters
+ */
+public final class QueryParameterBinder {
+    private static final int MAX_DEPTH = 8;
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<QueryParameterBinder> BINDERS = new ClassValue<QueryParameterBinder>() {
+        @Override
+        protected QueryParameterBinder computeValue(Class<?> type) {
+            return new QueryParameterBinder(type);
+        }
+    };
+
+    private final Property[] properties;
+    private final boolean scalar;
+
+    private QueryParameterBinder(Class<?> type) {
+        this.scalar = isScalar(type);
+
+        List<Property> properties = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (Class<?> declaringClass = type; declaringClass != null && declaringClass != Object.class; declaringClass = declaringClass.getSuperclass()) {
+            MethodHandles.Lookup lookup = lookup(declaringClass);
+            for (Field field : declaringClass.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+
+                SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                String name = serializedName != null ? serializedName.value() : field.getName();
+                MethodHandle getter = getter(lookup, field);
+                // a field shadowed by a subclass field of the same name is not bound
+                if (getter != null && names.add(name)) {
+                    Class<?> fieldType = field.getType();
+                    boolean scalar = fieldType.isPrimitive() || (Modifier.isFinal(fieldType.getModifiers()) && isScalar(fieldType));
+                    properties.add(new Property(name, getter, scalar));
+                }
+            }
+        }
+        this.properties = properties.toArray(new Property[0]);
+    }
+
+    /**
+     * Add the fields of the object as query parameters (a Map adds its entries).
+     */
+    public static void bind(HttpUrl.Builder httpUrlBuilder, Object object) {
+        if (object instanceof Map) {
+            bindMap(httpUrlBuilder, null, (Map<?, ?>) object, 0);
+        } else if (object != null) {
+            BINDERS.get(object.getClass()).bindProperties(httpUrlBuilder, null, object, 0);
+        }
+    }
+
+    private void bindProperties(HttpUrl.Builder httpUrlBuilder, String prefix, Object object, int depth) {
+        for (Property property : this.properties) {
+            Object value;
+            try {
+                value = (Object) property.getter.invokeExact(object);
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+            String name = prefix != null ? prefix + "." + property.name : property.name;
+            if (property.scalar) {
+                // String, boxed and primitive fields: no per-value type dispatch
+                if (value != null) {
+                    httpUrlBuilder.addQueryParameter(name, value.toString());
+                }
+            } else {
+                bindValue(httpUrlBuilder, name, value, depth);
+            }
+        }
+    }
+
+    private static void bindValue(HttpUrl.Builder httpUrlBuilder, String name, Object value, int depth) {
+        if (value == null) {
+            return;
+        }
+
+        if (value instanceof Iterable) {
+            for (Object element : (Iterable<?>) value) {
+                bindValue(httpUrlBuilder, name, element, depth);
+            }
+        } else if (value.getClass().isArray()) {
+            for (int i = 0, length = Array.getLength(value); i < length; i++) {
+                bindValue(httpUrlBuilder, name, Array.get(value, i), depth);
+            }
+        } else if (value instanceof Map) {
+            bindMap(httpUrlBuilder, name, (Map<?, ?>) value, depth);
+        } else {
+            QueryParameterBinder binder = BINDERS.get(value.getClass());
+            if (binder.scalar || depth >= MAX_DEPTH) {
+                httpUrlBuilder.addQueryParameter(name, value.toString());
+            } else {
+                binder.bindProperties(httpUrlBuilder, name, value, depth + 1);
+            }
+        }
+    }
+
+    private static void bindMap(HttpUrl.Builder httpUrlBuilder, String prefix, Map<?, ?> map, int depth) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            bindValue(httpUrlBuilder, prefix != null ? prefix + "." + key : key, entry.getValue(), depth + 1);
+        }
+    }
+
+    /**
+     * Values of these classes are added with toString().
+     */
+    private static boolean isScalar(Class<?> type) {
+        if (CharSequence.class.isAssignableFrom(type) || Number.class.isAssignableFrom(type)
+                || Boolean.class == type || Character.class == type || type.isEnum()) {
+            return true;
+        }
+
+        try {
+            return type.getMethod("toString").getDeclaringClass() != Object.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    private static MethodHandles.Lookup lookup(Class<?> declaringClass) {
+        try {
+            return MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+        } catch (IllegalAccessException | SecurityException e) {
+            // e.g. JDK classes in packages not opened to this module
+            return null;
+        }
+    }
+
+    private static MethodHandle getter(MethodHandles.Lookup lookup, Field field) {
+        try {
+            if (lookup != null) {
+                return lookup.unreflectGetter(field).asType(GETTER_TYPE);
+            }
+            return field.trySetAccessible() ? MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE) : null;
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static final class Property {
+        private final String name;
+        private final MethodHandle getter;
+        private final boolean scalar;
+
+        private Property(String name, MethodHandle getter, boolean scalar) {
+            this.name = name;
+            this.getter = getter;
+            this.scalar = scalar;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.okhttp.retry;
+
+import com.example.okhttp.model.RetryOption;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding-window retry budget.
+ * Retries within the window may not exceed budgetPercent of the requests (but minRetriesPerWindow are always allowed),
+ * so retries cannot amplify an outage.
+ */
+public class RetryBudget {
+    private static final int BUCKET_COUNT = 10;
+
+    private final int budgetPercent;
+    private final int minRetriesPerWindow;
+    private final long bucketNanos;
+
+    private final AtomicLongArray bucketEpochs = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLongArray requestCounts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLongArray retryCounts = new AtomicLongArray(BUCKET_COUNT);
+
+    public RetryBudget(RetryOption retryOption) {
+        this.budgetPercent = retryOption.getBudgetPercent();
+        this.minRetriesPerWindow = retryOption.getMinRetriesPerWindow();
+        this.bucketNanos = Math.max(1, retryOption.getTimeUnit().toNanos(retryOption.getBudgetWindow()) / BUCKET_COUNT);
+    }
+
+    public void recordRequest() {
+        this.requestCounts.incrementAndGet(this.currentBucket());
+    }
+
+    /**
+     * Reserve one retry if the budget allows it.
+     */
+    public boolean tryAcquireRetry() {
+        int bucket = this.currentBucket();
+        long epoch = this.bucketEpochs.get(bucket);
+
+        long requests = 0;
+        long retries = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (epoch - this.bucketEpochs.get(i) < BUCKET_COUNT) {
+                requests += this.requestCounts.get(i);
+                retries += this.retryCounts.get(i);
+            }
+        }
+
+        if (retries >= this.minRetriesPerWindow && retries * 100 >= requests * this.budgetPercent) {
+            return false;
+        }
+
+        this.retryCounts.incrementAndGet(bucket);
+        return true;
+    }
+
+    private int currentBucket() {
+        long epoch = System.nanoTime() / this.bucketNanos;
+        int bucket = (int) (epoch % BUCKET_COUNT);
+
+        long bucketEpoch = this.bucketEpochs.get(bucket);
+        if (bucketEpoch != epoch && this.bucketEpochs.compareAndSet(bucket, bucketEpoch, epoch)) {
+            // stale bucket: reset counters (a concurrent increment may be lost, which is acceptable for a budget)
+            this.requestCounts.set(bucket, 0);
+            this.retryCounts.set(bucket, 0);
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.okhttp.retry;
+
+import com.example.okhttp.model.RetryOption;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application interceptor retrying failed calls with exponential backoff and decorrelated jitter.
+ * delay = min(maxDelay, random(baseDelay, previousDelay * 3))
+ *
+ * Async calls sleep on the Dispatcher thread while backing off.
+ */
+public class RetryInterceptor implements Interceptor {
+    private final int maxRetries;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final RetryPolicy retryPolicy;
+    private final RetryBudget retryBudget;
+    private final RetryMetrics retryMetrics;
+
+    /**
+     *
+     * @param maxRetries retries after the first attempt (ConnectionPoolOption.retryCount)
+     * @param retryOption backoff, idempotency and budget option
+     */
+    public RetryInterceptor(int maxRetries, RetryOption retryOption) {
+        this.maxRetries = maxRetries;
+        this.baseDelayNanos = retryOption.getTimeUnit().toNanos(retryOption.getBaseDelay());
+        this.maxDelayNanos = retryOption.getTimeUnit().toNanos(retryOption.getMaxDelay());
+        this.retryPolicy = new RetryPolicy(retryOption);
+        this.retryBudget = new RetryBudget(retryOption);
+        this.retryMetrics = new RetryMetrics();
+    }
+
+    public RetryMetrics getRetryMetrics() {
+        return this.retryMetrics;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        boolean retryable = this.maxRetries > 0 && this.retryPolicy.isRetryable(request);
+
+        this.retryMetrics.recordRequest();
+        this.retryBudget.recordRequest();
+
+        long delayNanos = this.baseDelayNanos;
+        for (int attempt = 0; ; attempt++) {
+            Response response = null;
+            IOException exception = null;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                exception = e;
+            }
+
+            boolean failed = exception != null
+                    ? this.retryPolicy.isRetryable(exception)
+                    : this.retryPolicy.isRetryable(response);
+
+            if (!retryable || !failed || chain.call().isCanceled()) {
+                return this.result(response, exception);
+            }
+
+            if (attempt >= this.maxRetries) {
+                this.retryMetrics.recordExhausted();
+                return this.result(response, exception);
+            }
+
+            if (!this.retryBudget.tryAcquireRetry()) {
+                this.retryMetrics.recordBudgetRejected();
+                return this.result(response, exception);
+            }
+
+            if (response != null) {
+                response.close();
+            }
+
+            delayNanos = this.nextDelayNanos(delayNanos);
+            this.sleep(delayNanos);
+            this.retryMetrics.recordRetry(delayNanos);
+        }
+    }
+
+    private long nextDelayNanos(long previousDelayNanos) {
+        long upper = Math.max(this.baseDelayNanos, previousDelayNanos * 3);
+        long delayNanos = upper > this.baseDelayNanos
+                ? ThreadLocalRandom.current().nextLong(this.baseDelayNanos, upper)
+                : this.baseDelayNanos;
+        return Math.min(this.maxDelayNanos, delayNanos);
+    }
+
+    private void sleep(long delayNanos) throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off before retry");
+        }
+    }
+
+    private Response result(Response response, IOException exception) throws IOException {
+        if (exception != null) {
+            throw exception;
+        }
+        return response;
+    }
+}
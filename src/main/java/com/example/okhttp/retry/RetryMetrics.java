@@ -0,0 +1,75 @@
+package com.example.okhttp.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retry counters (live view).
+ */
+public class RetryMetrics {
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder exhaustedCount = new LongAdder();
+    private final LongAdder budgetRejectedCount = new LongAdder();
+    private final LongAdder backoffNanos = new LongAdder();
+
+    void recordRequest() {
+        this.requestCount.increment();
+    }
+
+    void recordRetry(long backoffNanos) {
+        this.retryCount.increment();
+        this.backoffNanos.add(backoffNanos);
+    }
+
+    void recordExhausted() {
+        this.exhaustedCount.increment();
+    }
+
+    void recordBudgetRejected() {
+        this.budgetRejectedCount.increment();
+    }
+
+    /**
+     * Calls that went through the retry interceptor.
+     */
+    public long getRequestCount() {
+        return this.requestCount.sum();
+    }
+
+    /**
+     * Retries sent (not counting the first attempt).
+     */
+    public long getRetryCount() {
+        return this.retryCount.sum();
+    }
+
+    /**
+     * Calls that failed after using all retries.
+     */
+    public long getExhaustedCount() {
+        return this.exhaustedCount.sum();
+    }
+
+    /**
+     * Retries refused by the retry budget.
+     */
+    public long getBudgetRejectedCount() {
+        return this.budgetRejectedCount.sum();
+    }
+
+    public long getBackoffTime(TimeUnit timeUnit) {
+        return timeUnit.convert(this.backoffNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "RetryMetrics{" +
+                "requestCount=" + this.getRequestCount() +
+                ", retryCount=" + this.getRetryCount() +
+                ", exhaustedCount=" + this.getExhaustedCount() +
+                ", budgetRejectedCount=" + this.getBudgetRejectedCount() +
+                ", backoffTimeMillis=" + this.getBackoffTime(TimeUnit.MILLISECONDS) +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.okhttp.retry;
+
+import com.example.okhttp.circuitbreaker.CallNotPermittedException;
+import com.example.okhttp.model.RetryOption;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * Idempotency-aware retry decision.
+ * GET, HEAD, OPTIONS, PUT and DELETE are retried by default.
+ * POST and PATCH are retried only with retryOnPost or an idempotency key header.
+ */
+public class RetryPolicy {
+    private final RetryOption retryOption;
+
+    public RetryPolicy(RetryOption retryOption) {
+        this.retryOption = retryOption;
+    }
+
+    public boolean isRetryable(Request request) {
+        if (request.body() != null && request.body().isOneShot()) {
+            return false;
+        }
+
+        switch (request.method().toUpperCase()) {
+            case "GET":
+            case "HEAD":
+            case "OPTIONS":
+            case "PUT":
+            case "DELETE":
+                return true;
+            case "POST":
+            case "PATCH":
+                return this.retryOption.isRetryOnPost()
+                        || request.header(this.retryOption.getIdempotencyKeyHeader()) != null;
+            default:
+                return false;
+        }
+    }
+
+    public boolean isRetryable(Response response) {
+        return this.retryOption.getRetryStatusCodes().contains(response.code());
+    }
+
+    public boolean isRetryable(IOException e) {
+        // fail fast while the circuit is open; "Canceled" is reported as a plain IOException by OkHttp
+        return !(e instanceof CallNotPermittedException) && !"Canceled".equals(e.getMessage());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.okhttp.route;
+
+import lombok.Data;
+import okhttp3.HttpUrl;
+
+/**
+ * Route template expanded with its variables.
+ */
+@Data
+public class Route {
+    private final RouteTemplate routeTemplate;
+    private final HttpUrl url;
+}
@@ -0,0 +1,186 @@
+package com.example.okhttp.route;
+
+import com.example.okhttp.metrics.PathTemplate;
+import okhttp3.HttpUrl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Route template such as {@code /block/{height}/tx/{id}}, parsed once against the base url of a client.
+ * Expanding it only encodes the variables: the base url and the literal segments are never parsed again.
+ * Variables take a whole path segment and are percent-encoded, so a value cannot add path segments ("/" becomes %2F).
+ * The template is attached to the request as {@link PathTemplate} and used as low-cardinality metric tag.
+ */
+public final class RouteTemplate {
+    private final String template;
+    private final PathTemplate pathTemplate;
+    // base url + literal segments before the first variable
+    private final HttpUrl prefixUrl;
+    // segments from the first variable on: encoded literal, or null for a variable
+    private final String[] segments;
+    // index into variableNames for each of the segments, -1 for a literal
+    private final int[] variableIndexes;
+    private final List<String> variableNames;
+
+    private RouteTemplate(String template, PathTemplate pathTemplate, HttpUrl prefixUrl,
+                          String[] segments, int[] variableIndexes, List<String> variableNames) {
+        this.template = template;
+        this.pathTemplate = pathTemplate;
+        this.prefixUrl = prefixUrl;
+        this.segments = segments;
+        this.variableIndexes = variableIndexes;
+        this.variableNames = variableNames;
+    }
+
+    /**
+     * Parse the template against the base url (scheme://host:port/basePath).
+     *
+     * @param baseUrl base url, its path is kept as prefix of the template
+     * @param template path template, e.g. /block/{height}/tx/{id}
+     */
+    public static RouteTemplate compile(HttpUrl baseUrl, String template) {
+        Objects.requireNonNull(baseUrl);
+        Objects.requireNonNull(template);
+        if (template.indexOf('?') >= 0 || template.indexOf('#') >= 0) {
+            throw new IllegalArgumentException("Route template must not have a query or fragment. " + template);
+        }
+
+        String path = template.startsWith("/") ? template.substring(1) : template;
+        HttpUrl.Builder prefixBuilder = baseUrl.newBuilder();
+        List<String> segments = new ArrayList<>();
+        List<Integer> variableIndexes = new ArrayList<>();
+        List<String> variableNames = new ArrayList<>();
+
+        for (String part : path.split("/", -1)) {
+            String variableName = variableName(template, part);
+            if (variableName == null && segments.isEmpty()) {
+                prefixBuilder.addEncodedPathSegment(part);
+                continue;
+            }
+
+            if (variableName == null) {
+                segments.add(canonicalSegment(baseUrl, part));
+                variableIndexes.add(-1);
+            } else {
+                int index = variableNames.indexOf(variableName);
+                if (index < 0) {
+                    index = variableNames.size();
+                    variableNames.add(variableName);
+                }
+                segments.add(null);
+                variableIndexes.add(index);
+            }
+        }
+
+        String basePath = baseUrl.encodedPath().endsWith("/")
+                ? baseUrl.encodedPath().substring(0, baseUrl.encodedPath().length() - 1)
+                : baseUrl.encodedPath();
+
+        return new RouteTemplate(
+                template,
+                new PathTemplate(basePath + "/" + path),
+                prefixBuilder.build(),
+                segments.toArray(new String[0]),
+                variableIndexes.stream().mapToInt(Integer::intValue).toArray(),
+                Collections.unmodifiableList(variableNames));
+    }
+
+    /**
+     * Expand the template with the variables in order of their first appearance.
+     *
+     * @param variables variable values (String.valueOf is used)
+     */
+    public Route expand(Object... variables) {
+        if (variables.length != this.variableNames.size()) {
+            throw new IllegalArgumentException("Route " + this.template + " expects " + this.variableNames.size()
+                    + " variables " + this.variableNames + ". given: " + variables.length);
+        }
+
+        HttpUrl.Builder httpUrlBuilder = this.prefixUrl.newBuilder();
+        for (int i = 0; i < this.segments.length; i++) {
+            int variableIndex = this.variableIndexes[i];
+            if (variableIndex < 0) {
+                httpUrlBuilder.addEncodedPathSegment(this.segments[i]);
+            } else {
+                httpUrlBuilder.addPathSegment(this.variableSegment(variableIndex, variables[variableIndex]));
+            }
+        }
+
+        return new Route(this, httpUrlBuilder.build());
+    }
+
+    /**
+     * Expand the template with the variables by name.
+     *
+     * @param variables variable name to value (String.valueOf is used)
+     */
+    public Route expand(Map<String, ?> variables) {
+        Object[] values = new Object[this.variableNames.size()];
+        for (int i = 0; i < values.length; i++) {
+            String variableName = this.variableNames.get(i);
+            if (!variables.containsKey(variableName)) {
+                throw new IllegalArgumentException("Route " + this.template + " is missing variable " + variableName);
+            }
+            values[i] = variables.get(variableName);
+        }
+
+        return this.expand(values);
+    }
+
+    public String getTemplate() {
+        return this.template;
+    }
+
+    public PathTemplate getPathTemplate() {
+        return this.pathTemplate;
+    }
+
+    public List<String> getVariableNames() {
+        return this.variableNames;
+    }
+
+    @Override
+    public String toString() {
+        return this.pathTemplate.getValue();
+    }
+
+    private String variableSegment(int variableIndex, Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Route " + this.template + " variable is null. " + this.variableNames.get(variableIndex));
+        }
+
+        String segment = String.valueOf(value);
+        // HttpUrl resolves dot segments even when they are added as a single segment
+        if (segment.equals(".") || segment.equals("..")) {
+            throw new IllegalArgumentException("Route " + this.template + " variable must not be a dot segment. " + this.variableNames.get(variableIndex));
+        }
+        return segment;
+    }
+
+    private static String variableName(String template, String part) {
+        if (part.length() > 2 && part.charAt(0) == '{' && part.charAt(part.length() - 1) == '}') {
+            String variableName = part.substring(1, part.length() - 1);
+            if (variableName.indexOf('{') < 0 && variableName.indexOf('}') < 0) {
+                return variableName;
+            }
+        }
+
+        if (part.indexOf('{') >= 0 || part.indexOf('}') >= 0) {
+            throw new IllegalArgumentException("Route variable must be a whole path segment. " + template);
+        }
+        return null;
+    }
+
+    private static String canonicalSegment(HttpUrl baseUrl, String part) {
+        return baseUrl.newBuilder()
+                .encodedPath("/")
+                .addEncodedPathSegment(part)
+                .build()
+                .encodedPathSegments()
+                .get(0);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.okhttp.rpc;
+
+import com.example.okhttp.model.RpcOption;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Typed JSON-RPC 2.0 calls over an {@link RpcTransport}.
+ * Responses are matched to calls by id. With autoBatching, calls are collected and sent as one batch when
+ * maxBatchSize calls are pending or lingerTime after the first pending call, whichever comes first.
+ */
+public class JsonRpcClient {
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "okhttp-rpc-batch-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Gson gson;
+    private final RpcOption rpcOption;
+    private final RpcTransport transport;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    private final Object lock = new Object();
+    private List<RpcCall<?>> pendingCalls = new ArrayList<>();
+    private ScheduledFuture<?> lingerTimer;
+
+    public JsonRpcClient(Gson gson, RpcOption rpcOption, RpcTransport transport) {
+        this.gson = gson;
+        this.rpcOption = rpcOption;
+        this.transport = transport;
+    }
+
+    public RpcOption getRpcOption() {
+        return this.rpcOption;
+    }
+
+    public <R> CompletableFuture<R> call(String method, Object params, Class<R> resultClass, Class<?> ... parameterClass) {
+        RpcCall<R> call = this.newCall(method, params, resultType(resultClass, parameterClass));
+
+        if (!this.rpcOption.isAutoBatching()) {
+            this.send(List.of(call));
+            return call.getFuture();
+        }
+
+        List<RpcCall<?>> fullBatch = null;
+        synchronized (this.lock) {
+            this.pendingCalls.add(call);
+            if (this.pendingCalls.size() >= this.rpcOption.getMaxBatchSize()) {
+                fullBatch = this.drainPendingCalls();
+            } else if (this.lingerTimer == null) {
+                this.lingerTimer = SCHEDULER.schedule(this::flush, this.rpcOption.getLingerTime(), this.rpcOption.getTimeUnit());
+            }
+        }
+
+        if (fullBatch != null) {
+            this.send(fullBatch);
+        }
+        return call.getFuture();
+    }
+
+    public RpcBatch batch() {
+        return new RpcBatch(this);
+    }
+
+    /**
+     * Send the calls collected by autoBatching now.
+     */
+    public void flush() {
+        List<RpcCall<?>> batch;
+        synchronized (this.lock) {
+            batch = this.drainPendingCalls();
+        }
+
+        if (!batch.isEmpty()) {
+            this.send(batch);
+        }
+    }
+
+    <R> RpcCall<R> newCall(String method, Object params, Type resultType) {
+        return new RpcCall<>(new RpcRequest(this.nextId.getAndIncrement(), method, params), resultType);
+    }
+
+    /**
+     * Send a single request object (one call) or a batch array, then complete every call from its response entry.
+     */
+    CompletableFuture<Void> send(List<RpcCall<?>> calls) {
+        Object payload;
+        if (calls.size() == 1) {
+            payload = calls.get(0).getRequest();
+        } else {
+            List<RpcRequest> requests = new ArrayList<>(calls.size());
+            calls.forEach(call -> requests.add(call.getRequest()));
+            payload = requests;
+        }
+
+        CompletableFuture<JsonElement> response;
+        try {
+            response = this.transport.send(payload);
+        } catch (Exception e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        return response.handle((json, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                calls.forEach(call -> call.fail(cause));
+            } else {
+                this.demultiplex(calls, json);
+            }
+            return null;
+        });
+    }
+
+    private void demultiplex(List<RpcCall<?>> calls, JsonElement json) {
+        Map<Long, JsonObject> responses = new HashMap<>();
+        if (json != null && json.isJsonArray()) {
+            json.getAsJsonArray().forEach(entry -> this.putResponse(responses, entry));
+        } else if (json != null && json.isJsonObject()) {
+            JsonElement id = json.getAsJsonObject().get("id");
+            if (id == null || id.isJsonNull()) {
+                // error for the whole request (e.g. parse error or invalid request)
+                calls.forEach(call -> call.complete(this.gson, json.getAsJsonObject()));
+                return;
+            }
+            this.putResponse(responses, json);
+        }
+
+        for (RpcCall<?> call : calls) {
+            JsonObject response = responses.get(call.getRequest().getId());
+            if (response != null) {
+                call.complete(this.gson, response);
+            } else {
+                call.fail(new RpcException("No response for JSON-RPC id " + call.getRequest().getId()));
+            }
+        }
+    }
+
+    private void putResponse(Map<Long, JsonObject> responses, JsonElement entry) {
+        if (!entry.isJsonObject()) {
+            return;
+        }
+
+        JsonElement id = entry.getAsJsonObject().get("id");
+        if (id != null && id.isJsonPrimitive() && id.getAsJsonPrimitive().isNumber()) {
+            responses.put(id.getAsLong(), entry.getAsJsonObject());
+        }
+    }
+
+    private List<RpcCall<?>> drainPendingCalls() {
+        if (this.lingerTimer != null) {
+            this.lingerTimer.cancel(false);
+            this.lingerTimer = null;
+        }
+
+        List<RpcCall<?>> batch = this.pendingCalls;
+        this.pendingCalls = new ArrayList<>();
+        return batch;
+    }
+
+    static Type resultType(Class<?> resultClass, Class<?> ... parameterClass) {
+        return parameterClass.length > 0
+                ? TypeToken.getParameterized(resultClass, parameterClass).getType()
+                : resultClass;
+    }
+}
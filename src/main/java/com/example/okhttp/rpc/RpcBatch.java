@@ -0,0 +1,45 @@
+package com.example.okhttp.rpc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Explicit JSON-RPC batch: calls added here are sent together as one batch array in a single POST.
+ * Every call has its own future; an error entry only fails the future of that call.
+ */
+public class RpcBatch {
+    private final JsonRpcClient jsonRpcClient;
+    private final List<RpcCall<?>> calls = new ArrayList<>();
+
+    RpcBatch(JsonRpcClient jsonRpcClient) {
+        this.jsonRpcClient = jsonRpcClient;
+    }
+
+    public <R> CompletableFuture<R> add(String method, Object params, Class<R> resultClass, Class<?> ... parameterClass) {
+        RpcCall<R> call = this.jsonRpcClient.newCall(method, params, JsonRpcClient.resultType(resultClass, parameterClass));
+        this.calls.add(call);
+        return call.getFuture();
+    }
+
+    public int size() {
+        return this.calls.size();
+    }
+
+    /**
+     * Send the batch. The returned future completes once every call future is completed.
+     */
+    public CompletableFuture<Void> executeAsync() {
+        if (this.calls.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return this.jsonRpcClient.send(new ArrayList<>(this.calls));
+    }
+
+    /**
+     * Send the batch and wait until every call future is completed.
+     */
+    public void execute() {
+        this.executeAsync().join();
+    }
+}
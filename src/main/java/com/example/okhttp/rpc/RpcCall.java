@@ -0,0 +1,43 @@
+package com.example.okhttp.rpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import lombok.Getter;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A pending call: the request object and the future completed from its entry of the (batch) response.
+ */
+@Getter
+class RpcCall<R> {
+    private final RpcRequest request;
+    private final Type resultType;
+    private final CompletableFuture<R> future = new CompletableFuture<>();
+
+    RpcCall(RpcRequest request, Type resultType) {
+        this.request = request;
+        this.resultType = resultType;
+    }
+
+    void complete(Gson gson, JsonObject response) {
+        try {
+            JsonElement error = response.get("error");
+            if (error != null && !error.isJsonNull()) {
+                this.future.completeExceptionally(new RpcException(gson.fromJson(error, RpcError.class)));
+                return;
+            }
+
+            R result = gson.fromJson(response.get("result"), this.resultType);
+            this.future.complete(result);
+        } catch (Exception e) {
+            this.future.completeExceptionally(new RuntimeException(e));
+        }
+    }
+
+    void fail(Throwable throwable) {
+        this.future.completeExceptionally(throwable instanceof RuntimeException ? throwable : new RuntimeException(throwable));
+    }
+}
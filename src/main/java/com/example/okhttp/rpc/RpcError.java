@@ -0,0 +1,18 @@
+package com.example.okhttp.rpc;
+
+import com.google.gson.JsonElement;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * JSON-RPC 2.0 error object.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RpcError {
+    private int code;
+    private String message;
+    private JsonElement data;
+}
@@ -0,0 +1,24 @@
+package com.example.okhttp.rpc;
+
+import lombok.Getter;
+
+/**
+ * Completes the future of a single call whose response carried an error object (or no response at all).
+ * The other calls of the same batch are not affected.
+ */
+@Getter
+public class RpcException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final RpcError error;
+
+    public RpcException(RpcError error) {
+        super("JSON-RPC error " + error.getCode() + ": " + error.getMessage());
+        this.error = error;
+    }
+
+    public RpcException(String message) {
+        super(message);
+        this.error = null;
+    }
+}
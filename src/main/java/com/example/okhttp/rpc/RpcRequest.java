@@ -0,0 +1,22 @@
+package com.example.okhttp.rpc;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * JSON-RPC 2.0 request object.
+ */
+@Data
+@AllArgsConstructor
+public class RpcRequest {
+    public final static String VERSION = "2.0";
+
+    private String jsonrpc;
+    private long id;
+    private String method;
+    private Object params;
+
+    public RpcRequest(long id, String method, Object params) {
+        this(VERSION, id, method, params);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.okhttp.rpc;
+
+import com.google.gson.JsonElement;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends a JSON-RPC request object or batch array in one HTTP request and returns the parsed response body.
+ */
+@FunctionalInterface
+public interface RpcTransport {
+    CompletableFuture<JsonElement> send(Object payload);
+}
@@ -0,0 +1,335 @@
+package com.example.okhttp.upload;
+
+import com.example.okhttp.model.UploadOption;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Resumable chunked upload. The file is split into parts of partSize bytes, and up to parallelism parts are POSTed
+ * concurrently (one thread per part in flight) as multipart/form-data with the fields
+ * uploadId, fileName, fileSize, partCount, partNumber (1-based), offset and the part bytes as "file".
+ * Completed parts are recorded in a JSON state file after every part; calling upload again for the same file
+ * (same path, size and modification time) and the same part url skips them and reuses the uploadId. When all parts are uploaded, the optional
+ * completion request POSTs {uploadId, fileName, fileSize, partCount} and the state file is deleted.
+ */
+public final class ChunkedUploader {
+    private static final Logger log = LoggerFactory.getLogger(ChunkedUploader.class);
+    private static final Gson GSON = new Gson();
+    private static final MediaType OCTET_STREAM = MediaType.get("application/octet-stream");
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final OkHttpClient okHttpClient;
+    private final HttpUrl partUrl;
+    private final Path file;
+    private final UploadOption uploadOption;
+    private final UploadState state;
+    private final Path stateFile;
+    private final int partCount;
+    private final Queue<Integer> pendingParts = new ConcurrentLinkedQueue<>();
+    private final List<UploadPart> uploadedParts = new ArrayList<>();
+    private final Set<Call> calls = ConcurrentHashMap.newKeySet();
+    private long bytesTransferred;
+    private volatile boolean failed;
+    private volatile Exception failure;
+
+    private ChunkedUploader(OkHttpClient okHttpClient, HttpUrl partUrl, Path file, UploadOption uploadOption,
+                            UploadState state, Path stateFile, int partCount) {
+        this.okHttpClient = okHttpClient;
+        this.partUrl = partUrl;
+        this.file = file;
+        this.uploadOption = uploadOption;
+        this.state = state;
+        this.stateFile = stateFile;
+        this.partCount = partCount;
+    }
+
+    /**
+     * Upload the file in parts to partUrl, resuming from the state file of an earlier attempt.
+     *
+     * @param completeUrl url of the completion request (nullable)
+     */
+    public static UploadResult upload(OkHttpClient okHttpClient, HttpUrl partUrl, HttpUrl completeUrl, Path file, UploadOption uploadOption) throws IOException {
+        long start = System.nanoTime();
+        long fileSize = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        long partSize = Math.max(1, uploadOption.getPartSize());
+        // an empty file is uploaded as one empty part
+        int partCount = (int) Math.max(1, (fileSize + partSize - 1) / partSize);
+
+        String sourcePath = file.toAbsolutePath().normalize().toString();
+        Path stateFile = stateFile(file, sourcePath, partUrl, uploadOption);
+        UploadState state = readState(stateFile);
+        if (state == null || !state.matches(partUrl.toString(), sourcePath, fileSize, lastModified, partSize)) {
+            state = new UploadState();
+            state.setUploadId(UUID.randomUUID().toString());
+            state.setPartUrl(partUrl.toString());
+            state.setSourcePath(sourcePath);
+            state.setFileName(file.getFileName().toString());
+            state.setFileSize(fileSize);
+            state.setLastModified(lastModified);
+            state.setPartSize(partSize);
+            writeState(stateFile, state);
+        }
+        int resumedPartCount = state.getCompletedParts().size();
+        if (resumedPartCount > 0) {
+            log.info("Resuming upload {} of {}: {}/{} parts already uploaded", state.getUploadId(), file, resumedPartCount, partCount);
+        }
+
+        ChunkedUploader chunkedUploader = new ChunkedUploader(okHttpClient, partUrl, file, uploadOption, state, stateFile, partCount);
+        chunkedUploader.run();
+
+        if (completeUrl != null) {
+            chunkedUploader.complete(completeUrl);
+        }
+        Files.deleteIfExists(stateFile);
+
+        return new UploadResult(state.getUploadId(), fileSize, partCount, resumedPartCount,
+                Collections.unmodifiableList(chunkedUploader.uploadedParts), System.nanoTime() - start);
+    }
+
+    private void run() throws IOException {
+        for (int partNumber = 1; partNumber <= this.partCount; partNumber++) {
+            if (this.state.getCompletedParts().contains(partNumber)) {
+                this.bytesTransferred += this.partLength(partNumber);
+            } else {
+                this.pendingParts.add(partNumber);
+            }
+        }
+
+        // parallelism workers take parts from the queue
+        int workerCount = Math.max(1, Math.min(this.uploadOption.getParallelism(), this.pendingParts.size()));
+        // workers block on execute(): not on the Dispatcher executor, which runs the enqueued calls
+        ExecutorService executorService = newExecutorService(workerCount);
+        try {
+            this.run(executorService, workerCount);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void run(Executor executor, int workerCount) throws IOException {
+        List<CompletableFuture<Void>> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(CompletableFuture.runAsync(() -> {
+                try {
+                    Integer partNumber;
+                    while (!this.failed && (partNumber = this.pendingParts.poll()) != null) {
+                        this.uploadPart(partNumber);
+                    }
+                } catch (IOException e) {
+                    this.fail(e);
+                    throw new UncheckedIOException(e);
+                } catch (RuntimeException e) {
+                    this.fail(e);
+                    throw e;
+                }
+            }, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).get();
+        } catch (InterruptedException e) {
+            this.cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading " + this.file);
+        } catch (ExecutionException e) {
+            // the first failure, the other parts were canceled because of it
+            Throwable cause = this.failure != null ? this.failure : e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private void uploadPart(int partNumber) throws IOException {
+        long offset = (partNumber - 1) * this.state.getPartSize();
+        long length = this.partLength(partNumber);
+
+        for (int attempt = 1; ; attempt++) {
+            if (this.failed) {
+                throw new IOException("Canceled");
+            }
+
+            RequestBody requestBody = new MultipartBody.Builder()
+                    .setType(MultipartBody.FORM)
+                    .addFormDataPart("uploadId", this.state.getUploadId())
+                    .addFormDataPart("fileName", this.state.getFileName())
+                    .addFormDataPart("fileSize", String.valueOf(this.state.getFileSize()))
+                    .addFormDataPart("partCount", String.valueOf(this.partCount))
+                    .addFormDataPart("partNumber", String.valueOf(partNumber))
+                    .addFormDataPart("offset", String.valueOf(offset))
+                    .addFormDataPart("file", this.state.getFileName(), new FileRegionRequestBody(this.file, offset, length, OCTET_STREAM))
+                    .build();
+
+            Call call = this.okHttpClient.newCall(new Request.Builder().url(this.partUrl).post(requestBody).build());
+            this.calls.add(call);
+            if (this.failed) {
+                call.cancel();
+            }
+            long partStart = System.nanoTime();
+            try (Response response = call.execute()) {
+                ResponseBody responseBody = Objects.requireNonNull(response.body());
+
+                // Response Status Check
+                if (!response.isSuccessful()) {
+                    String message = "Part " + partNumber + " was answered with " + response.code() + ". " + responseBody.string();
+                    if (response.code() >= 500 || response.code() == 408 || response.code() == 429) {
+                        throw new IOException(message);
+                    }
+                    throw new RuntimeException("Response is not successful. " + message);
+                }
+
+                this.completed(new UploadPart(partNumber, offset, length, System.nanoTime() - partStart, attempt));
+                return;
+            } catch (IOException e) {
+                if (this.failed || attempt > this.uploadOption.getPartRetryCount()) {
+                    throw e;
+                }
+                log.warn("Part {}/{} of upload {} failed, retry {}/{}. {}",
+                        partNumber, this.partCount, this.state.getUploadId(), attempt, this.uploadOption.getPartRetryCount(), e.toString());
+            } finally {
+                this.calls.remove(call);
+            }
+        }
+    }
+
+    private synchronized void completed(UploadPart uploadPart) throws IOException {
+        this.uploadedParts.add(uploadPart);
+        this.state.getCompletedParts().add(uploadPart.getPartNumber());
+        writeState(this.stateFile, this.state);
+
+        this.bytesTransferred += uploadPart.getSize();
+        log.debug("Part {}/{} of upload {}: {} bytes in {} ms ({} KB/s)",
+                uploadPart.getPartNumber(), this.partCount, this.state.getUploadId(), uploadPart.getSize(),
+                uploadPart.getElapsedNanos() / 1_000_000, (long) (uploadPart.getBytesPerSecond() / 1024));
+        if (this.uploadOption.getProgressListener() != null) {
+            this.uploadOption.getProgressListener().onProgress(this.bytesTransferred, this.state.getFileSize());
+        }
+    }
+
+    private void complete(HttpUrl completeUrl) throws IOException {
+        JsonObject summary = new JsonObject();
+        summary.addProperty("uploadId", this.state.getUploadId());
+        summary.addProperty("fileName", this.state.getFileName());
+        summary.addProperty("fileSize", this.state.getFileSize());
+        summary.addProperty("partCount", this.partCount);
+
+        Request request = new Request.Builder()
+                .url(completeUrl)
+                .post(RequestBody.create(GSON.toJson(summary), JSON))
+                .build();
+        try (Response response = this.okHttpClient.newCall(request).execute()) {
+            // Response Status Check
+            if (!response.isSuccessful()) {
+                throw new RuntimeException("Response is not successful. " + Objects.requireNonNull(response.body()).string());
+            }
+        }
+    }
+
+    private long partLength(int partNumber) {
+        long offset = (partNumber - 1) * this.state.getPartSize();
+        return Math.min(this.state.getPartSize(), this.state.getFileSize() - offset);
+    }
+
+    /**
+     * One failed part cancels the others.
+     */
+    private synchronized void fail(Exception e) {
+        if (this.failure == null) {
+            this.failure = e;
+        }
+        this.cancel();
+    }
+
+    private void cancel() {
+        this.failed = true;
+        this.calls.forEach(Call::cancel);
+    }
+
+    private static ExecutorService newExecutorService(int workerCount) {
+        return Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "chunked-upload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * One state file per source file and part url, so uploads of same-named files sharing a stateDirectory
+     * do not overwrite each other's state.
+     */
+    private static Path stateFile(Path file, String sourcePath, HttpUrl partUrl, UploadOption uploadOption) {
+        String stateFileName = file.getFileName().toString() + "."
+                + Integer.toHexString(Objects.hash(sourcePath, partUrl.toString())) + ".upload";
+        return uploadOption.getStateDirectory() != null
+                ? Paths.get(uploadOption.getStateDirectory()).resolve(stateFileName)
+                : file.resolveSibling(stateFileName);
+    }
+
+    private static UploadState readState(Path stateFile) {
+        if (!Files.exists(stateFile)) {
+            return null;
+        }
+
+        try {
+            return GSON.fromJson(Files.readString(stateFile), UploadState.class);
+        } catch (IOException | JsonParseException e) {
+            log.warn("Ignoring unreadable upload state {}. {}", stateFile, e.toString());
+            return null;
+        }
+    }
+
+    private static void writeState(Path stateFile, UploadState state) throws IOException {
+        // a crash while writing must not leave a truncated state
+        Path tempFile = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        Files.write(tempFile, GSON.toJson(state).getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(tempFile, stateFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
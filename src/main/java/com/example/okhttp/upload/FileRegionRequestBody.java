@@ -0,0 +1,48 @@
+package com.example.okhttp.upload;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Request body of length bytes of a file starting at offset, streamed from a FileChannel.
+ * The file is opened on every write, so the body can be retried.
+ */
+public class FileRegionRequestBody extends RequestBody {
+    private final Path path;
+    private final long offset;
+    private final long length;
+    private final MediaType mediaType;
+
+    public FileRegionRequestBody(Path path, long offset, long length, MediaType mediaType) {
+        this.path = path;
+        this.offset = offset;
+        this.length = length;
+        this.mediaType = mediaType;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return this.mediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        return this.length;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            fileChannel.position(this.offset);
+            sink.write(Okio.source(Channels.newInputStream(fileChannel)), this.length);
+        }
+    }
+}
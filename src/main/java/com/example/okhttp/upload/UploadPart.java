@@ -0,0 +1,22 @@
+package com.example.okhttp.upload;
+
+import lombok.Data;
+
+/**
+ * Uploaded part of a chunked upload.
+ */
+@Data
+public class UploadPart {
+    private final int partNumber;
+    private final long offset;
+    private final long size;
+    private final long elapsedNanos;
+    private final int attempts;
+
+    /**
+     * Throughput of the successful attempt.
+     */
+    public double getBytesPerSecond() {
+        return this.elapsedNanos > 0 ? this.size * 1e9 / this.elapsedNanos : 0;
+    }
+}
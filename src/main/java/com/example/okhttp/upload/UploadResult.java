@@ -0,0 +1,20 @@
+package com.example.okhttp.upload;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Result of a chunked upload.
+ *
+ * parts: parts uploaded by this call (parts resumed from the state file are only counted in resumedPartCount)
+ */
+@Data
+public class UploadResult {
+    private final String uploadId;
+    private final long bytes;
+    private final int partCount;
+    private final int resumedPartCount;
+    private final List<UploadPart> parts;
+    private final long elapsedNanos;
+}
@@ -0,0 +1,28 @@
+package com.example.okhttp.upload;
+
+import lombok.Data;
+
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Progress of a chunked upload, persisted as JSON after every part so an interrupted upload can resume.
+ * A state whose part url, source file (absolute path, size, modification time) or part size differs from the
+ * current upload is discarded.
+ */
+@Data
+class UploadState {
+    private String uploadId;
+    private String partUrl;
+    private String sourcePath;
+    private String fileName;
+    private long fileSize;
+    private long lastModified;
+    private long partSize;
+    private TreeSet<Integer> completedParts = new TreeSet<>();
+
+    boolean matches(String partUrl, String sourcePath, long fileSize, long lastModified, long partSize) {
+        return Objects.equals(this.partUrl, partUrl) && Objects.equals(this.sourcePath, sourcePath)
+                && this.fileSize == fileSize && this.lastModified == lastModified && this.partSize == partSize;
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.okhttp.upload;
+
+import com.example.okhttp.model.UploadOption;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedUploaderTest {
+    private static final int PART_SIZE = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private StubServer stubServer;
+    private OkHttpClient okHttpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.stubServer = new StubServer();
+        this.okHttpClient = new OkHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.stubServer.close();
+        this.okHttpClient.dispatcher().executorService().shutdown();
+        this.okHttpClient.connectionPool().evictAll();
+    }
+
+    @Test
+    void splitsFileIntoParts() throws IOException {
+        byte[] data = randomBytes(10 * PART_SIZE + 100);
+        Path file = this.write("data.bin", data);
+
+        UploadResult result = ChunkedUploader.upload(this.okHttpClient, this.stubServer.url("/parts"),
+                this.stubServer.url("/complete"), file, this.uploadOption(3));
+
+        assertEquals(11, result.getPartCount());
+        assertEquals(0, result.getResumedPartCount());
+        assertEquals(11, result.getParts().size());
+        assertEquals(data.length, result.getBytes());
+        for (UploadPart part : result.getParts()) {
+            assertEquals((part.getPartNumber() - 1) * (long) PART_SIZE, part.getOffset());
+            assertEquals(part.getPartNumber() == 11 ? 100 : PART_SIZE, part.getSize());
+        }
+
+        assertEquals(11, this.stubServer.parts.size());
+        for (Map<String, String> fields : this.stubServer.parts) {
+            assertEquals(result.getUploadId(), fields.get("uploadId"));
+            assertEquals("data.bin", fields.get("fileName"));
+            assertEquals(String.valueOf(data.length), fields.get("fileSize"));
+            assertEquals("11", fields.get("partCount"));
+            assertEquals(String.valueOf((Integer.parseInt(fields.get("partNumber")) - 1) * PART_SIZE), fields.get("offset"));
+        }
+        assertArrayEquals(data, this.stubServer.assemble(data.length));
+    }
+
+    @Test
+    void boundsParallelism() throws IOException {
+        Path file = this.write("data.bin", randomBytes(12 * PART_SIZE));
+        this.stubServer.partDelayMillis = 50;
+
+        ChunkedUploader.upload(this.okHttpClient, this.stubServer.url("/parts"), null, file, this.uploadOption(3));
+
+        assertEquals(12, this.stubServer.parts.size());
+        assertTrue(this.stubServer.maxConcurrentParts.get() <= 3, "max concurrent parts " + this.stubServer.maxConcurrentParts);
+        assertTrue(this.stubServer.maxConcurrentParts.get() >= 2, "max concurrent parts " + this.stubServer.maxConcurrentParts);
+    }
+
+    @Test
+    void resumesWithoutUploadingCompletedPartsAgain() throws IOException {
+        byte[] data = randomBytes(8 * PART_SIZE);
+        Path file = this.write("data.bin", data);
+        this.stubServer.failingPartNumber = 4;
+
+        assertThrows(IOException.class, () -> ChunkedUploader.upload(this.okHttpClient, this.stubServer.url("/parts"),
+                this.stubServer.url("/complete"), file, this.uploadOption(1)));
+        assertEquals(List.of("1", "2", "3", "4"), this.stubServer.partNumbers());
+        assertTrue(this.stubServer.completions.isEmpty());
+        assertTrue(this.stateFileExists());
+
+        this.stubServer.failingPartNumber = 0;
+        this.stubServer.parts.clear();
+        UploadResult result = ChunkedUploader.upload(this.okHttpClient, this.stubServer.url("/parts"),
+                this.stubServer.url("/complete"), file, this.uploadOption(1));
+
+        assertEquals(3, result.getResumedPartCount());
+        assertEquals(5, result.getParts().size());
+        assertEquals(List.of("4", "5", "6", "7", "8"), this.stubServer.partNumbers());
+        assertFalse(this.stateFileExists());
+    }
+
+    @Test
+    void doesNotResumeUploadToAnotherPartUrl() throws IOException {
+        Path file = this.write("data.bin", randomBytes(4 * PART_SIZE));
+        this.stubServer.failingPartNumber = 3;
+
+        assertThrows(IOException.class, () -> ChunkedUploader.upload(this.okHttpClient, this.stubServer.url("/parts"),
+                null, file, this.uploadOption(1)));
+        String failedUploadId = this.stubServer.parts.get(0).get("uploadId");
+
+        this.stubServer.failingPartNumber = 0;
+        this.stubServer.parts.clear();
+        UploadResult result = ChunkedUploader.upload(this.okHttpClient, this.stubServer.url("/other-parts"),
+                null, file, this.uploadOption(1));
+
+        assertEquals(0, result.getResumedPartCount());
+        assertEquals(List.of("1", "2", "3", "4"), this.stubServer.partNumbers());
+        assertNotEquals(failedUploadId, result.getUploadId());
+    }
+
+    @Test
+    void sendsCompletionRequest() throws IOException {
+        byte[] data = randomBytes(3 * PART_SIZE + 1);
+        Path file = this.write("data.bin", data);
+
+        UploadResult result = ChunkedUploader.upload(this.okHttpClient, this.stubServer.url("/parts"),
+                this.stubServer.url("/complete"), file, this.uploadOption(2));
+
+        assertEquals(1, this.stubServer.completions.size());
+        JsonObject completion = this.stubServer.completions.get(0);
+        assertEquals(result.getUploadId(), completion.get("uploadId").getAsString());
+        assertEquals("data.bin", completion.get("fileName").getAsString());
+        assertEquals(data.length, completion.get("fileSize").getAsLong());
+        assertEquals(4, completion.get("partCount").getAsInt());
+    }
+
+    private UploadOption uploadOption(int parallelism) {
+        UploadOption uploadOption = new UploadOption();
+        uploadOption.setPartSize(PART_SIZE);
+        uploadOption.setParallelism(parallelism);
+        uploadOption.setPartRetryCount(0);
+        return uploadOption;
+    }
+
+    private Path write(String fileName, byte[] data) throws IOException {
+        return Files.write(this.tempDir.resolve(fileName), data);
+    }
+
+    private boolean stateFileExists() throws IOException {
+        try (Stream<Path> files = Files.list(this.tempDir)) {
+            return files.anyMatch(path -> path.getFileName().toString().endsWith(".upload"));
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    /**
+     * Receives parts (multipart/form-data) and completion requests (JSON) on a local JDK HttpServer.
+     */
+    private static class StubServer {
+        private final HttpServer httpServer;
+        private final ExecutorService executorService = Executors.newCachedThreadPool();
+        private final List<Map<String, String>> parts = new CopyOnWriteArrayList<>();
+        private final ConcurrentMap<Integer, byte[]> partBytes = new ConcurrentHashMap<>();
+        private final List<JsonObject> completions = new CopyOnWriteArrayList<>();
+        private final AtomicInteger concurrentParts = new AtomicInteger();
+        private final AtomicInteger maxConcurrentParts = new AtomicInteger();
+        private volatile int failingPartNumber;
+        private volatile long partDelayMillis;
+
+        StubServer() throws IOException {
+            this.httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            this.httpServer.setExecutor(this.executorService);
+            this.httpServer.createContext("/complete", this::complete);
+            this.httpServer.createContext("/", this::part);
+            this.httpServer.start();
+        }
+
+        HttpUrl url(String path) {
+            return HttpUrl.get("http://localhost:" + this.httpServer.getAddress().getPort() + path);
+        }
+
+        List<String> partNumbers() {
+            List<String> partNumbers = new ArrayList<>();
+            this.parts.forEach(fields -> partNumbers.add(fields.get("partNumber")));
+            partNumbers.sort((a, b) -> Integer.compare(Integer.parseInt(a), Integer.parseInt(b)));
+            return partNumbers;
+        }
+
+        byte[] assemble(int size) {
+            byte[] data = new byte[size];
+            this.parts.forEach(fields -> {
+                byte[] bytes = this.partBytes.get(Integer.parseInt(fields.get("partNumber")));
+                System.arraycopy(bytes, 0, data, Integer.parseInt(fields.get("offset")), bytes.length);
+            });
+            return data;
+        }
+
+        private void part(HttpExchange exchange) throws IOException {
+            int concurrent = this.concurrentParts.incrementAndGet();
+            this.maxConcurrentParts.accumulateAndGet(concurrent, Math::max);
+            try {
+                String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                String boundary = contentType.substring(contentType.indexOf("boundary=") + "boundary=".length());
+                Map<String, String> fields = parseMultipart(exchange.getRequestBody().readAllBytes(), boundary);
+                Thread.sleep(this.partDelayMillis);
+
+                int partNumber = Integer.parseInt(fields.get("partNumber"));
+                this.parts.add(fields);
+                if (partNumber == this.failingPartNumber) {
+                    this.respond(exchange, 500, "failing part");
+                    return;
+                }
+                this.partBytes.put(partNumber, fields.get("file").getBytes(StandardCharsets.ISO_8859_1));
+                this.respond(exchange, 200, "{}");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.respond(exchange, 500, "interrupted");
+            } finally {
+                this.concurrentParts.decrementAndGet();
+            }
+        }
+
+        private void complete(HttpExchange exchange) throws IOException {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            this.completions.add(new Gson().fromJson(body, JsonObject.class));
+            this.respond(exchange, 200, "{}");
+        }
+
+        private void respond(HttpExchange exchange, int code, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(code, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        }
+
+        /**
+         * Field name to value; values are ISO-8859-1 strings so binary parts keep their bytes.
+         */
+        private static Map<String, String> parseMultipart(byte[] body, String boundary) {
+            Map<String, String> fields = new HashMap<>();
+            String content = new String(body, StandardCharsets.ISO_8859_1);
+            for (String section : content.split("--" + boundary)) {
+                int headerEnd = section.indexOf("\r\n\r\n");
+                if (headerEnd < 0) {
+                    continue;
+                }
+                String headers = section.substring(0, headerEnd);
+                int nameStart = headers.indexOf("name=\"") + "name=\"".length();
+                String name = headers.substring(nameStart, headers.indexOf('"', nameStart));
+                // the value ends with the CRLF preceding the next boundary
+                fields.put(name, section.substring(headerEnd + 4, section.length() - 2));
+            }
+            return fields;
+        }
+
+        void close() {
+            this.httpServer.stop(0);
+            this.executorService.shutdownNow();
+        }
+    }
+}